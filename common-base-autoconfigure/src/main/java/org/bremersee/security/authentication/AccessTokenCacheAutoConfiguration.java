@@ -19,6 +19,7 @@ package org.bremersee.security.authentication;
 import java.util.List;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
+import org.bremersee.security.authentication.AuthProperties.JwtCache;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -101,11 +102,27 @@ public class AccessTokenCacheAutoConfiguration {
     public AccessTokenCache accessTokenCache(
         ObjectProvider<List<CacheManager>> cacheManagers) {
 
-      return findJwtCache(cacheManagers.getIfAvailable())
-          .map(externalCache -> AccessTokenCache.builder().withExternalCache(externalCache))
+      AccessTokenCache accessTokenCache = createAccessTokenCache(cacheManagers.getIfAvailable());
+      return isBlocking(accessTokenCache)
+          ? withNearCache(accessTokenCache, authProperties.getJwtCache())
+          : accessTokenCache;
+    }
+
+    /**
+     * Creates an access token cache without a near cache in front of it.
+     *
+     * @param cacheManagers the cache managers (can be {@code null})
+     * @return the access token cache
+     */
+    AccessTokenCache createAccessTokenCache(List<CacheManager> cacheManagers) {
+      Optional<Cache> externalCache = findJwtCache(cacheManagers);
+      return externalCache
+          .map(cache -> AccessTokenCache.builder().withExternalCache(cache))
           .orElseGet(AccessTokenCache::builder)
           .withExpirationTimeThreshold(authProperties.getJwtCache().getExpirationTimeThreshold())
           .withKeyPrefix(authProperties.getJwtCache().getKeyPrefix())
+          .withRefreshAhead(authProperties.getJwtCache().findRefreshAheadLifetimeFraction())
+          .withInternalCacheMaximumSize(authProperties.getJwtCache().getInternalCacheMaximumSize())
           .build();
     }
 
@@ -173,8 +190,42 @@ public class AccessTokenCacheAutoConfiguration {
       Assert.notNull(connectionFactory, "Redis connection factory must not be null.");
       log.info("Creating {} with {} ...", RedisAccessTokenCache.class.getSimpleName(),
           ClassUtils.getUserClass(connectionFactory).getSimpleName());
-      return new RedisAccessTokenCache(authProperties.getJwtCache(), connectionFactory);
+      return withNearCache(
+          new RedisAccessTokenCache(authProperties.getJwtCache(), connectionFactory),
+          authProperties.getJwtCache());
+    }
+  }
+
+  /**
+   * Determines whether the given access token cache may block, because it isn't the internal in
+   * memory cache.
+   *
+   * @param accessTokenCache the access token cache
+   * @return {@code true} if the access token cache may block, otherwise {@code false}
+   */
+  static boolean isBlocking(AccessTokenCache accessTokenCache) {
+    return !(accessTokenCache instanceof AccessTokenCacheImpl)
+        || ((AccessTokenCacheImpl) accessTokenCache).hasExternalCache();
+  }
+
+  /**
+   * Puts a near cache in front of the given access token cache, if it is enabled.
+   *
+   * @param accessTokenCache the access token cache
+   * @param properties the jwt cache properties
+   * @return the access token cache
+   */
+  static AccessTokenCache withNearCache(AccessTokenCache accessTokenCache, JwtCache properties) {
+    if (!properties.isNearCacheEnabled()) {
+      return accessTokenCache;
     }
+    log.info("Using near cache with maximum size {} in front of {}",
+        properties.getNearCacheMaximumSize(), accessTokenCache);
+    return new NearCacheAccessTokenCache(
+        accessTokenCache,
+        properties.getNearCacheMaximumSize(),
+        properties.getNearCacheTimeToLive(),
+        properties.getExpirationTimeThreshold());
   }
 
 }
@@ -112,6 +112,25 @@ public class AuthProperties {
   @NotEmpty
   private String nameJsonPath = "$.preferred_username";
 
+  /**
+   * The maximum number of converted jwt authentication tokens, that are cached until the jwt
+   * expires. A value less than 1 disables the cache.
+   */
+  private int jwtConverterCacheSize = 0;
+
+  /**
+   * The maximum number of decoded and verified jwts, that are cached until they expire, so that
+   * the signature of a token, that is used again, must not be verified again. A value less than 1
+   * disables the cache.
+   */
+  private int jwtDecoderCacheSize = 0;
+
+  /**
+   * The maximum number of tokens, whose preferred language and time zone are cached until the
+   * token expires. A value less than 1 disables the cache.
+   */
+  private int authenticationDetailsCacheSize = 0;
+
   @NotNull
   private Map<String, List<String>> roleDefinitions = new LinkedHashMap<>();
 
@@ -136,6 +155,12 @@ public class AuthProperties {
   @NotNull
   private JwtCache jwtCache = new JwtCache();
 
+  /**
+   * Properties of the jwk set, that is used to verify the jwts.
+   */
+  @NotNull
+  private JwkSet jwkSet = new JwkSet();
+
   /**
    * The properties for the oauth2 password flow.
    */
@@ -442,6 +467,12 @@ public class AuthProperties {
     private String username;
 
     private String password;
+
+    /**
+     * The maximum number of successful authentications, that are cached until the access token
+     * expires. A value less than 1 disables the cache.
+     */
+    private int authenticationCacheSize = 0;
   }
 
   /**
@@ -513,6 +544,60 @@ public class AuthProperties {
      */
     private String keyPrefix = "jwt:";
 
+    /**
+     * The maximum size of the internal in memory cache, that is used, if there is no external
+     * cache.
+     */
+    private int internalCacheMaximumSize = InMemoryAccessTokenCache.DEFAULT_MAXIMUM_SIZE;
+
+    /**
+     * The maximum size of the in memory near cache in front of a redis or external cache. A value
+     * of {@code 0} disables the near cache.
+     */
+    private int nearCacheMaximumSize = 0;
+
+    /**
+     * The maximum time to live of the near cache entries. The entries never live longer than their
+     * access tokens are valid.
+     */
+    @NotNull
+    private Duration nearCacheTimeToLive = Duration.ofSeconds(10L);
+
+    /**
+     * Specifies whether a blocking access token cache (for example with an external cache) is
+     * called on a scheduler for blocking tasks in a reactive application.
+     */
+    private boolean offloadBlockingCache = true;
+
+    /**
+     * Specifies whether the near cache is enabled.
+     *
+     * @return {@code true} if the near cache is enabled, otherwise {@code false}
+     */
+    public boolean isNearCacheEnabled() {
+      return nearCacheMaximumSize > 0;
+    }
+
+    /**
+     * Specifies whether used access tokens are renewed in the background before they expire.
+     */
+    private boolean refreshAhead = false;
+
+    /**
+     * The fraction of the access token lifetime after which a used access token is renewed in the
+     * background (only used, if refresh ahead is enabled).
+     */
+    private double refreshAheadLifetimeFraction = 0.75;
+
+    /**
+     * Gets the refresh ahead lifetime fraction, if refresh ahead is enabled.
+     *
+     * @return the refresh ahead lifetime fraction or {@code null}, if refresh ahead is disabled
+     */
+    public Double findRefreshAheadLifetimeFraction() {
+      return refreshAhead ? refreshAheadLifetimeFraction : null;
+    }
+
     /**
      * Add key prefix to the given key.
      *
@@ -529,4 +614,42 @@ public class AuthProperties {
 
   }
 
+  /**
+   * The jwk set properties.
+   */
+  @Getter
+  @Setter
+  @ToString
+  @EqualsAndHashCode
+  @NoArgsConstructor
+  @Validated
+  public static class JwkSet {
+
+    /**
+     * Specifies whether the jwk set is loaded at startup and refreshed in the background, so that
+     * the keys are never loaded on a request thread (except for unknown key ids).
+     */
+    private boolean prefetch = false;
+
+    /**
+     * The interval of the background refresh.
+     */
+    @NotNull
+    private Duration refreshInterval = Duration.ofMinutes(5L);
+
+    /**
+     * The minimum time between two refreshes, that are caused by tokens with an unknown key id.
+     */
+    @NotNull
+    private Duration unknownKeyIdRefreshInterval = Duration.ofSeconds(30L);
+
+    /**
+     * The connect and read timeout of the jwk set request and the maximum time, a request waits
+     * for a refresh caused by an unknown key id.
+     */
+    @NotNull
+    private Duration timeout = Duration.ofSeconds(5L);
+
+  }
+
 }
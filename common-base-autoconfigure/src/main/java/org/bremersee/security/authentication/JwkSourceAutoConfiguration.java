@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.StringUtils;
+
+/**
+ * The jwk source auto configuration. If {@code bremersee.auth.jwk-set.prefetch} is {@code true},
+ * the jwt decoder uses a {@link PrefetchingJwkSource} instead of loading the jwk set on the
+ * request thread.
+ *
+ * @author Christian Bremer
+ */
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnClass({
+    NimbusJwtDecoder.class,
+    PrefetchingJwkSource.class
+})
+@Conditional(JwkSourceCondition.class)
+@Configuration
+@AutoConfigureBefore(OAuth2ResourceServerAutoConfiguration.class)
+@EnableConfigurationProperties({AuthProperties.class, OAuth2ResourceServerProperties.class})
+@Slf4j
+public class JwkSourceAutoConfiguration {
+
+  private final AuthProperties properties;
+
+  private final OAuth2ResourceServerProperties.Jwt jwtProperties;
+
+  /**
+   * Instantiates a new jwk source auto configuration.
+   *
+   * @param properties the properties
+   * @param resourceServerProperties the resource server properties
+   */
+  public JwkSourceAutoConfiguration(
+      AuthProperties properties,
+      OAuth2ResourceServerProperties resourceServerProperties) {
+    this.properties = properties;
+    this.jwtProperties = resourceServerProperties.getJwt();
+  }
+
+  /**
+   * Creates the prefetching jwk source, that loads the jwk set at startup.
+   *
+   * @param restTemplateBuilder the rest template builder
+   * @return the prefetching jwk source
+   */
+  @ConditionalOnMissingBean
+  @Bean
+  public PrefetchingJwkSource prefetchingJwkSource(
+      ObjectProvider<RestTemplateBuilder> restTemplateBuilder) {
+    PrefetchingJwkSource jwkSource = new PrefetchingJwkSource(
+        jwtProperties.getJwkSetUri(),
+        restTemplateBuilder.getIfAvailable(RestTemplateBuilder::new)
+            .setConnectTimeout(properties.getJwkSet().getTimeout())
+            .setReadTimeout(properties.getJwkSet().getTimeout())
+            .build(),
+        properties.getJwkSet().getRefreshInterval(),
+        properties.getJwkSet().getUnknownKeyIdRefreshInterval(),
+        properties.getJwkSet().getTimeout());
+    log.info("Creating {} ...", jwkSource);
+    jwkSource.start();
+    return jwkSource;
+  }
+
+  /**
+   * Creates the jwt decoder, that uses the prefetching jwk source.
+   *
+   * @param jwkSource the jwk source
+   * @return the jwt decoder
+   */
+  @ConditionalOnMissingBean
+  @Bean
+  public JwtDecoder jwtDecoder(PrefetchingJwkSource jwkSource) {
+    DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+    jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(
+        JWSAlgorithm.parse(jwtProperties.getJwsAlgorithm()), jwkSource));
+    // the claims are validated by the jwt decoder
+    jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+    });
+    NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+    if (StringUtils.hasText(jwtProperties.getIssuerUri())) {
+      jwtDecoder.setJwtValidator(
+          JwtValidators.createDefaultWithIssuer(jwtProperties.getIssuerUri()));
+    }
+    return jwtDecoder;
+  }
+
+}
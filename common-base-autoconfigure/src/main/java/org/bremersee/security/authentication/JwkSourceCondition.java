@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.util.StringUtils;
+
+/**
+ * The jwk source condition. It matches, if a jwk set uri is present and the prefetching of the jwk
+ * set is enabled.
+ *
+ * @author Christian Bremer
+ */
+public class JwkSourceCondition extends SpringBootCondition {
+
+  private static final String jwkSetUriKey
+      = "spring.security.oauth2.resourceserver.jwt.jwk-set-uri";
+
+  private static final String prefetchKey = "bremersee.auth.jwk-set.prefetch";
+
+  @Override
+  public ConditionOutcome getMatchOutcome(
+      ConditionContext context,
+      AnnotatedTypeMetadata metadata) {
+
+    final boolean matches = StringUtils.hasText(context.getEnvironment().getProperty(jwkSetUriKey))
+        && context.getEnvironment().getProperty(prefetchKey, Boolean.class, Boolean.FALSE);
+    return new ConditionOutcome(
+        matches,
+        "Prefetching jwk source requires '" + jwkSetUriKey + "' and '" + prefetchKey
+            + "' = true.");
+  }
+}
@@ -19,6 +19,7 @@ package org.bremersee.security.authentication;
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.context.MessageSourceProperties;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -28,11 +29,13 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplicat
 import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -103,7 +106,8 @@ public class JwtSupportAutoConfiguration {
         messageSourceProperties.defaultLocale(),
         messageSourceProperties.defaultTimeZone(),
         properties.getPreferredLanguageJsonPath(),
-        properties.getPreferredTimeZoneJsonPath());
+        properties.getPreferredTimeZoneJsonPath(),
+        properties.getAuthenticationDetailsCacheSize());
   }
 
   /**
@@ -125,9 +129,22 @@ public class JwtSupportAutoConfiguration {
     converter.setRolesJsonPath(properties.getRolesJsonPath());
     converter.setRolesValueList(properties.isRolesValueList());
     converter.setRolesValueSeparator(properties.getRolesValueSeparator());
+    converter.setCacheSize(properties.getJwtConverterCacheSize());
     return converter;
   }
 
+  /**
+   * Creates a bean post processor, that puts a cache of verified tokens in front of the
+   * jwt decoder, if {@code bremersee.auth.jwt-decoder-cache-size} is greater than 0.
+   *
+   * @param environment the environment
+   * @return the bean post processor
+   */
+  @Bean
+  public static BeanPostProcessor cachingJwtDecoderPostProcessor(Environment environment) {
+    return new CachingJwtDecoderPostProcessor(environment);
+  }
+
   /**
    * Creates access token retriever.
    *
@@ -180,11 +197,38 @@ public class JwtSupportAutoConfiguration {
     Assert.notNull(
         jwtDecoder.getIfAvailable(),
         "Jwt decoder must be present.");
-    return new PasswordFlowAuthenticationManager(
+    PasswordFlowAuthenticationManager manager = new PasswordFlowAuthenticationManager(
         properties.getPasswordFlow(),
         jwtDecoder.getIfAvailable(),
         jwtConverter,
         tokenRetriever);
+    manager.setAuthenticationCacheSize(properties.getPasswordFlow().getAuthenticationCacheSize());
+    return manager;
+  }
+
+  private static class CachingJwtDecoderPostProcessor implements BeanPostProcessor {
+
+    private final int cacheSize;
+
+    private CachingJwtDecoderPostProcessor(Environment environment) {
+      // the post processor is created before the configuration properties beans
+      this.cacheSize = Binder.get(environment)
+          .bind("bremersee.auth", AuthProperties.class)
+          .map(AuthProperties::getJwtDecoderCacheSize)
+          .orElse(0);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof JwtDecoder && !(bean instanceof CachingJwtDecoder)) {
+        if (cacheSize > 0) {
+          log.info("Caching verified jwts of {} (bean name = {}, cache size = {}).",
+              bean, beanName, cacheSize);
+          return new CachingJwtDecoder((JwtDecoder) bean, cacheSize);
+        }
+      }
+      return bean;
+    }
   }
 
 }
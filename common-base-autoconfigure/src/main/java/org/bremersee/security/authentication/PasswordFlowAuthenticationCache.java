@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import org.bremersee.exception.ServiceException;
+import org.bremersee.security.core.ExpiringCache;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * The authentication cache of the password flow authentication managers. The key is a salted hash
+ * of user name and password, the salt is created randomly for every instance. The authentications
+ * are cached until the jwt expires.
+ *
+ * @author Christian Bremer
+ */
+class PasswordFlowAuthenticationCache {
+
+  private final byte[] salt = new byte[32];
+
+  private final ExpiringCache<String, JwtAuthenticationToken> cache;
+
+  /**
+   * Instantiates a new password flow authentication cache.
+   *
+   * @param maximumSize the maximum size
+   */
+  PasswordFlowAuthenticationCache(int maximumSize) {
+    new SecureRandom().nextBytes(salt);
+    this.cache = new ExpiringCache<>(maximumSize);
+  }
+
+  /**
+   * Creates the cache key of the given authentication request.
+   *
+   * @param authentication the authentication request
+   * @return the cache key
+   */
+  String createKey(Authentication authentication) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      md.update(salt);
+      md.update(String.valueOf(authentication.getName()).getBytes(StandardCharsets.UTF_8));
+      md.update((byte) 0);
+      md.update(String.valueOf(authentication.getCredentials()).getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(md.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw ServiceException.internalServerError("Creating hash failed.", e);
+    }
+  }
+
+  /**
+   * Finds a cached authentication. A new authentication token is returned on every call, because
+   * the caller may modify it (e. g. by setting the details).
+   *
+   * @param key the key
+   * @return the authentication or {@code null}
+   */
+  Authentication find(String key) {
+    JwtAuthenticationToken cached = cache.get(key);
+    if (cached == null) {
+      return null;
+    }
+    return new JwtAuthenticationToken(cached.getToken(), cached.getAuthorities(), cached.getName());
+  }
+
+  /**
+   * Puts the authentication into the cache, if it is a jwt authentication token with expiration
+   * time.
+   *
+   * @param key the key
+   * @param authentication the authentication
+   */
+  void put(String key, Authentication authentication) {
+    if (authentication instanceof JwtAuthenticationToken) {
+      JwtAuthenticationToken token = (JwtAuthenticationToken) authentication;
+      if (token.getToken().getExpiresAt() != null) {
+        cache.put(
+            key,
+            new JwtAuthenticationToken(token.getToken(), token.getAuthorities(), token.getName()),
+            token.getToken().getExpiresAt().toEpochMilli());
+      }
+    }
+  }
+
+}
@@ -54,6 +54,8 @@ public class PasswordFlowAuthenticationManager
 
   private final Converter<Jwt, ? extends AbstractAuthenticationToken> jwtAuthenticationConverter;
 
+  private PasswordFlowAuthenticationCache authenticationCache;
+
   /**
    * Instantiates a new password flow authentication manager.
    *
@@ -76,8 +78,36 @@ public class PasswordFlowAuthenticationManager
     this.accessTokenRetriever = accessTokenRetriever;
   }
 
+  /**
+   * Sets the maximum size of the authentication cache. Successful authentications are cached until
+   * the access token expires, so that repeated requests with the same credentials neither retrieve
+   * nor decode an access token. A value less than 1 disables the cache (default).
+   *
+   * @param cacheSize the cache size
+   */
+  public void setAuthenticationCacheSize(int cacheSize) {
+    this.authenticationCache = cacheSize > 0
+        ? new PasswordFlowAuthenticationCache(cacheSize)
+        : null;
+  }
+
   @Override
   public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+    final PasswordFlowAuthenticationCache cache = authenticationCache;
+    if (cache == null) {
+      return doAuthenticate(authentication);
+    }
+    final String cacheKey = cache.createKey(authentication);
+    final Authentication cached = cache.find(cacheKey);
+    if (cached != null) {
+      return cached;
+    }
+    final Authentication result = doAuthenticate(authentication);
+    cache.put(cacheKey, result);
+    return result;
+  }
+
+  private Authentication doAuthenticate(Authentication authentication) {
     final PasswordFlowProperties properties = PasswordFlowProperties.builder()
         .from(passwordFlowProperties)
         .username(authentication.getName())
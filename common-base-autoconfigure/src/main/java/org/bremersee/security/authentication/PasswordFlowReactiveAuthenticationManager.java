@@ -51,6 +51,8 @@ public class PasswordFlowReactiveAuthenticationManager implements ReactiveAuthen
 
   private final AccessTokenRetriever<Mono<String>> retriever;
 
+  private PasswordFlowAuthenticationCache authenticationCache;
+
   /**
    * Instantiates a new password flow reactive authentication manager.
    *
@@ -88,9 +90,32 @@ public class PasswordFlowReactiveAuthenticationManager implements ReactiveAuthen
     }
   }
 
+  /**
+   * Sets the maximum size of the authentication cache. Successful authentications are cached until
+   * the access token expires, so that repeated requests with the same credentials neither retrieve
+   * nor decode an access token. A value less than 1 disables the cache (default).
+   *
+   * @param cacheSize the cache size
+   */
+  public void setAuthenticationCacheSize(int cacheSize) {
+    this.authenticationCache = cacheSize > 0
+        ? new PasswordFlowAuthenticationCache(cacheSize)
+        : null;
+  }
+
   @Override
   public Mono<Authentication> authenticate(final Authentication authentication) {
+    final PasswordFlowAuthenticationCache cache = authenticationCache;
+    if (cache == null) {
+      return doAuthenticate(authentication);
+    }
+    final String cacheKey = cache.createKey(authentication);
+    return Mono.justOrEmpty(cache.find(cacheKey))
+        .switchIfEmpty(Mono.defer(() -> doAuthenticate(authentication)
+            .doOnNext(result -> cache.put(cacheKey, result))));
+  }
 
+  private Mono<Authentication> doAuthenticate(final Authentication authentication) {
     final PasswordFlowProperties properties = PasswordFlowProperties.builder()
         .from(passwordFlowProperties)
         .username(authentication.getName())
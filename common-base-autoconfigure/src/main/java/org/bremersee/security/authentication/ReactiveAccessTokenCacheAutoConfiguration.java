@@ -18,6 +18,7 @@ package org.bremersee.security.authentication;
 
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.bremersee.security.authentication.AuthProperties.JwtCache;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -92,7 +93,9 @@ public class ReactiveAccessTokenCacheAutoConfiguration {
     }
 
     /**
-     * Creates an access token cache that will be wrapped into a reactive one.
+     * Creates an access token cache that will be wrapped into a reactive one. The near cache is not
+     * put in front of this cache, but in front of the reactive one, so that a hit of the near cache
+     * is not offloaded to the scheduler for blocking tasks.
      *
      * @param cacheManagers the cache managers
      * @return the access token cache
@@ -103,7 +106,7 @@ public class ReactiveAccessTokenCacheAutoConfiguration {
     public AccessTokenCache accessTokenCache(ObjectProvider<List<CacheManager>> cacheManagers) {
       log.info("Creating {} for reactive application.", AccessTokenCache.class.getSimpleName());
       return new AccessTokenCacheAutoConfiguration.Default(authProperties)
-          .accessTokenCache(cacheManagers);
+          .createAccessTokenCache(cacheManagers.getIfAvailable());
     }
 
     /**
@@ -117,7 +120,20 @@ public class ReactiveAccessTokenCacheAutoConfiguration {
         ObjectProvider<AccessTokenCache> accessTokenCache) {
 
       log.info("Creating {} ...", ReactiveAccessTokenCache.class.getSimpleName());
-      return ReactiveAccessTokenCache.from(accessTokenCache.getIfAvailable());
+      AccessTokenCache cache = accessTokenCache.getIfAvailable();
+      Assert.notNull(cache, "Access token cache must not be null.");
+      if (!AccessTokenCacheAutoConfiguration.isBlocking(cache)) {
+        return ReactiveAccessTokenCache.from(cache);
+      }
+      ReactiveAccessTokenCache reactiveCache;
+      if (authProperties.getJwtCache().isOffloadBlockingCache()) {
+        log.info("Blocking access token cache {} will be called on bounded elastic scheduler.",
+            cache);
+        reactiveCache = ReactiveAccessTokenCache.fromBlocking(cache, null);
+      } else {
+        reactiveCache = ReactiveAccessTokenCache.from(cache);
+      }
+      return withNearCache(reactiveCache, authProperties.getJwtCache());
     }
 
   }
@@ -171,9 +187,33 @@ public class ReactiveAccessTokenCacheAutoConfiguration {
       Assert.notNull(connectionFactory, "Redis connection factory must not be null.");
       log.info("Creating {} with {} ...", RedisAccessTokenCache.class.getSimpleName(),
           ClassUtils.getUserClass(connectionFactory).getSimpleName());
-      return new ReactiveRedisAccessTokenCache(authProperties.getJwtCache(), connectionFactory);
+      return withNearCache(
+          new ReactiveRedisAccessTokenCache(authProperties.getJwtCache(), connectionFactory),
+          authProperties.getJwtCache());
     }
 
   }
 
+  /**
+   * Puts a near cache in front of the given reactive access token cache, if it is enabled.
+   *
+   * @param accessTokenCache the reactive access token cache
+   * @param properties the jwt cache properties
+   * @return the reactive access token cache
+   */
+  static ReactiveAccessTokenCache withNearCache(
+      ReactiveAccessTokenCache accessTokenCache,
+      JwtCache properties) {
+    if (!properties.isNearCacheEnabled()) {
+      return accessTokenCache;
+    }
+    log.info("Using near cache with maximum size {} in front of {}",
+        properties.getNearCacheMaximumSize(), accessTokenCache);
+    return new ReactiveNearCacheAccessTokenCache(
+        accessTokenCache,
+        properties.getNearCacheMaximumSize(),
+        properties.getNearCacheTimeToLive(),
+        properties.getExpirationTimeThreshold());
+  }
+
 }
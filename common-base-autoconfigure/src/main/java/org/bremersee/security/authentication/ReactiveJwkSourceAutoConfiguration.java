@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jwt.SignedJWT;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.reactive.ReactiveOAuth2ResourceServerAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The reactive jwk source auto configuration. If {@code bremersee.auth.jwk-set.prefetch} is
+ * {@code true}, the reactive jwt decoder uses a {@link PrefetchingJwkSource}, so that the jwk set
+ * is never loaded on the event loop.
+ *
+ * @author Christian Bremer
+ */
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@ConditionalOnClass({
+    NimbusReactiveJwtDecoder.class,
+    PrefetchingJwkSource.class
+})
+@Conditional(JwkSourceCondition.class)
+@Configuration
+@AutoConfigureBefore(ReactiveOAuth2ResourceServerAutoConfiguration.class)
+@EnableConfigurationProperties({AuthProperties.class, OAuth2ResourceServerProperties.class})
+@Slf4j
+public class ReactiveJwkSourceAutoConfiguration {
+
+  private final AuthProperties properties;
+
+  private final OAuth2ResourceServerProperties.Jwt jwtProperties;
+
+  /**
+   * Instantiates a new reactive jwk source auto configuration.
+   *
+   * @param properties the properties
+   * @param resourceServerProperties the resource server properties
+   */
+  public ReactiveJwkSourceAutoConfiguration(
+      AuthProperties properties,
+      OAuth2ResourceServerProperties resourceServerProperties) {
+    this.properties = properties;
+    this.jwtProperties = resourceServerProperties.getJwt();
+  }
+
+  /**
+   * Creates the prefetching jwk source, that loads the jwk set at startup.
+   *
+   * @return the prefetching jwk source
+   */
+  @ConditionalOnMissingBean
+  @Bean
+  public PrefetchingJwkSource prefetchingJwkSource() {
+    PrefetchingJwkSource jwkSource = new PrefetchingJwkSource(
+        jwtProperties.getJwkSetUri(),
+        null,
+        properties.getJwkSet().getRefreshInterval(),
+        properties.getJwkSet().getUnknownKeyIdRefreshInterval(),
+        properties.getJwkSet().getTimeout());
+    log.info("Creating {} ...", jwkSource);
+    jwkSource.start();
+    return jwkSource;
+  }
+
+  /**
+   * Creates the reactive jwt decoder, that uses the prefetching jwk source. The keys in memory are
+   * selected on the calling thread; only the refresh for an unknown key id runs on a scheduler for
+   * blocking tasks.
+   *
+   * @param jwkSource the jwk source
+   * @return the reactive jwt decoder
+   */
+  @ConditionalOnMissingBean
+  @Bean
+  public ReactiveJwtDecoder reactiveJwtDecoder(PrefetchingJwkSource jwkSource) {
+    NimbusReactiveJwtDecoder jwtDecoder = NimbusReactiveJwtDecoder
+        .withJwkSource(jwt -> selectKeys(jwkSource, jwt))
+        .jwsAlgorithm(SignatureAlgorithm.from(jwtProperties.getJwsAlgorithm()))
+        .build();
+    if (StringUtils.hasText(jwtProperties.getIssuerUri())) {
+      jwtDecoder.setJwtValidator(
+          JwtValidators.createDefaultWithIssuer(jwtProperties.getIssuerUri()));
+    }
+    return jwtDecoder;
+  }
+
+  private static Flux<JWK> selectKeys(PrefetchingJwkSource jwkSource, SignedJWT jwt) {
+    JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader()));
+    List<JWK> keys = selector.select(jwkSource.getJwkSet());
+    if (!keys.isEmpty()) {
+      return Flux.fromIterable(keys);
+    }
+    return Mono.fromCallable(() -> jwkSource.get(selector, null))
+        .subscribeOn(Schedulers.boundedElastic())
+        .flatMapIterable(list -> list);
+  }
+
+}
@@ -19,6 +19,7 @@ package org.bremersee.security.authentication;
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.context.MessageSourceProperties;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -28,10 +29,12 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplicat
 import org.springframework.boot.autoconfigure.security.oauth2.resource.reactive.ReactiveOAuth2ResourceServerAutoConfiguration;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -102,7 +105,8 @@ public class ReactiveJwtSupportAutoConfiguration {
         messageSourceProperties.defaultLocale(),
         messageSourceProperties.defaultTimeZone(),
         properties.getPreferredLanguageJsonPath(),
-        properties.getPreferredTimeZoneJsonPath());
+        properties.getPreferredTimeZoneJsonPath(),
+        properties.getAuthenticationDetailsCacheSize());
   }
 
   /**
@@ -125,9 +129,22 @@ public class ReactiveJwtSupportAutoConfiguration {
     converter.setRolesJsonPath(properties.getRolesJsonPath());
     converter.setRolesValueList(properties.isRolesValueList());
     converter.setRolesValueSeparator(properties.getRolesValueSeparator());
+    converter.setCacheSize(properties.getJwtConverterCacheSize());
     return new JsonPathReactiveJwtConverter(converter);
   }
 
+  /**
+   * Creates a bean post processor, that puts a cache of verified tokens in front of the
+   * reactive jwt decoder, if {@code bremersee.auth.jwt-decoder-cache-size} is greater than 0.
+   *
+   * @param environment the environment
+   * @return the bean post processor
+   */
+  @Bean
+  public static BeanPostProcessor cachingJwtDecoderPostProcessor(Environment environment) {
+    return new CachingReactiveJwtDecoderPostProcessor(environment);
+  }
+
   /**
    * Creates access token retriever.
    *
@@ -172,11 +189,39 @@ public class ReactiveJwtSupportAutoConfiguration {
 
     Assert.notNull(jwtDecoder.getIfAvailable(), "Jwt decoder must be present.");
     log.info("Creating {} ...", PasswordFlowReactiveAuthenticationManager.class.getSimpleName());
-    return new PasswordFlowReactiveAuthenticationManager(
+    PasswordFlowReactiveAuthenticationManager manager
+        = new PasswordFlowReactiveAuthenticationManager(
         properties.getPasswordFlow(),
         jwtDecoder.getIfAvailable(),
         jwtConverter,
         tokenRetriever);
+    manager.setAuthenticationCacheSize(properties.getPasswordFlow().getAuthenticationCacheSize());
+    return manager;
+  }
+
+  private static class CachingReactiveJwtDecoderPostProcessor implements BeanPostProcessor {
+
+    private final int cacheSize;
+
+    private CachingReactiveJwtDecoderPostProcessor(Environment environment) {
+      // the post processor is created before the configuration properties beans
+      this.cacheSize = Binder.get(environment)
+          .bind("bremersee.auth", AuthProperties.class)
+          .map(AuthProperties::getJwtDecoderCacheSize)
+          .orElse(0);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof ReactiveJwtDecoder && !(bean instanceof CachingReactiveJwtDecoder)) {
+        if (cacheSize > 0) {
+          log.info("Caching verified jwts of {} (bean name = {}, cache size = {}).",
+              bean, beanName, cacheSize);
+          return new CachingReactiveJwtDecoder((ReactiveJwtDecoder) bean, cacheSize);
+        }
+      }
+      return bean;
+    }
   }
 
 }
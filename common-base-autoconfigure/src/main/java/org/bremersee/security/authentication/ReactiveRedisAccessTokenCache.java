@@ -17,12 +17,20 @@
 package org.bremersee.security.authentication;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import javax.validation.constraints.NotNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.security.authentication.AuthProperties.JwtCache;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.util.Assert;
@@ -34,12 +42,14 @@ import reactor.core.publisher.Mono;
  * @author Christian Bremer
  */
 @Slf4j
-public class ReactiveRedisAccessTokenCache implements ReactiveAccessTokenCache {
+public class ReactiveRedisAccessTokenCache implements ReactiveAccessTokenCache, DisposableBean {
 
   private final JwtCache jwtCacheProperties;
 
   private final ReactiveStringRedisTemplate redis;
 
+  private final AccessTokenRefreshScheduler refreshScheduler;
+
   @Setter
   @NotNull
   private Function<String, Date> findExpirationTimeFn = AccessTokenCache::getExpirationTime;
@@ -58,11 +68,22 @@ public class ReactiveRedisAccessTokenCache implements ReactiveAccessTokenCache {
     Assert.notNull(connectionFactory, "Redis connection factory must be present.");
     this.jwtCacheProperties = jwtCacheProperties;
     this.redis = new ReactiveStringRedisTemplate(connectionFactory);
+    this.refreshScheduler = Optional
+        .ofNullable(jwtCacheProperties.findRefreshAheadLifetimeFraction())
+        .map(fraction -> new AccessTokenRefreshScheduler(
+            fraction,
+            jwtCacheProperties.getExpirationTimeThreshold()))
+        .orElse(null);
   }
 
   @Override
   public Mono<String> findAccessToken(String key) {
-    return redis.opsForValue().get(key)
+    return redis.opsForValue().get(jwtCacheProperties.addKeyPrefix(key))
+        .doOnNext(accessToken -> {
+          if (refreshScheduler != null) {
+            refreshScheduler.accessed(key);
+          }
+        })
         .onErrorResume(
             throwable -> throwable instanceof RuntimeException,
             throwable -> {
@@ -71,6 +92,37 @@ public class ReactiveRedisAccessTokenCache implements ReactiveAccessTokenCache {
             });
   }
 
+  @Override
+  public Mono<Map<String, String>> findAccessTokens(Collection<String> keys) {
+    if (keys == null || keys.isEmpty()) {
+      return Mono.just(new LinkedHashMap<>());
+    }
+    List<String> keyList = new ArrayList<>(keys);
+    return redis.opsForValue()
+        .multiGet(keyList.stream()
+            .map(jwtCacheProperties::addKeyPrefix)
+            .collect(Collectors.toList()))
+        .map(values -> {
+          Map<String, String> accessTokens = new LinkedHashMap<>();
+          for (int i = 0; i < values.size(); i++) {
+            String accessToken = values.get(i);
+            if (accessToken != null) {
+              accessTokens.put(keyList.get(i), accessToken);
+              if (refreshScheduler != null) {
+                refreshScheduler.accessed(keyList.get(i));
+              }
+            }
+          }
+          return accessTokens;
+        })
+        .onErrorResume(
+            throwable -> throwable instanceof RuntimeException,
+            throwable -> {
+              log.error("Getting access tokens from redis cache failed.", throwable);
+              return Mono.just(new LinkedHashMap<>());
+            });
+  }
+
   @Override
   public Mono<String> putAccessToken(String key, String accessToken) {
     Duration duration = jwtCacheProperties.getExpirationTimeThreshold();
@@ -78,10 +130,10 @@ public class ReactiveRedisAccessTokenCache implements ReactiveAccessTokenCache {
     String dbKey = jwtCacheProperties.addKeyPrefix(key);
     return Mono.justOrEmpty(findExpirationTimeFn.apply(accessToken))
         .filter(expirationTime -> expirationTime.getTime() > millis)
-        .flatMap(expirationTime -> redis.opsForValue().set(dbKey, accessToken)
-            .flatMap(success -> success
-                ? redis.expireAt(dbKey, expirationTime.toInstant().minus(duration))
-                : Mono.just(false)))
+        .flatMap(expirationTime -> redis.opsForValue().set(
+            dbKey,
+            accessToken,
+            Duration.ofMillis(expirationTime.getTime() - millis)))
         .map(result -> accessToken)
         .onErrorResume(
             throwable -> throwable instanceof RuntimeException,
@@ -92,4 +144,25 @@ public class ReactiveRedisAccessTokenCache implements ReactiveAccessTokenCache {
         .defaultIfEmpty(accessToken);
   }
 
+  @Override
+  public Mono<String> putAccessToken(String key, String accessToken, Mono<String> refreshMono) {
+    return putAccessToken(key, accessToken)
+        .doOnNext(token -> {
+          if (refreshScheduler != null && refreshMono != null) {
+            refreshScheduler.schedule(key, token, () -> refreshMono
+                .flatMap(newToken -> putAccessToken(key, newToken, refreshMono))
+                .subscribe(
+                    newToken -> log.trace("Access token with key {} renewed.", key),
+                    throwable -> log.error("Renewing access token failed.", throwable)));
+          }
+        });
+  }
+
+  @Override
+  public void destroy() {
+    if (refreshScheduler != null) {
+      refreshScheduler.destroy();
+    }
+  }
+
 }
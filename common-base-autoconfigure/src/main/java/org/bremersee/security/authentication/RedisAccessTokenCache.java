@@ -17,13 +17,21 @@
 package org.bremersee.security.authentication;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import javax.validation.constraints.NotNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.security.authentication.AuthProperties.JwtCache;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.util.Assert;
@@ -34,12 +42,14 @@ import org.springframework.util.Assert;
  * @author Christian Bremer
  */
 @Slf4j
-public class RedisAccessTokenCache implements AccessTokenCache {
+public class RedisAccessTokenCache implements AccessTokenCache, DisposableBean {
 
   private final JwtCache jwtCacheProperties;
 
   private final StringRedisTemplate redis;
 
+  private final AccessTokenRefreshScheduler refreshScheduler;
+
   @Setter
   @NotNull
   private Function<String, Date> findExpirationTimeFn = AccessTokenCache::getExpirationTime;
@@ -57,12 +67,23 @@ public class RedisAccessTokenCache implements AccessTokenCache {
     Assert.notNull(connectionFactory, "Redis connection factory must be present.");
     this.jwtCacheProperties = jwtCacheProperties;
     this.redis = new StringRedisTemplate(connectionFactory);
+    this.refreshScheduler = Optional
+        .ofNullable(jwtCacheProperties.findRefreshAheadLifetimeFraction())
+        .map(fraction -> new AccessTokenRefreshScheduler(
+            fraction,
+            jwtCacheProperties.getExpirationTimeThreshold()))
+        .orElse(null);
   }
 
   @Override
   public Optional<String> findAccessToken(String key) {
     try {
-      return Optional.ofNullable(redis.opsForValue().get(jwtCacheProperties.addKeyPrefix(key)));
+      Optional<String> accessToken = Optional
+          .ofNullable(redis.opsForValue().get(jwtCacheProperties.addKeyPrefix(key)));
+      if (accessToken.isPresent() && refreshScheduler != null) {
+        refreshScheduler.accessed(key);
+      }
+      return accessToken;
 
     } catch (RuntimeException e) {
       log.error("Getting access token from redis cache failed.", e);
@@ -70,6 +91,33 @@ public class RedisAccessTokenCache implements AccessTokenCache {
     }
   }
 
+  @Override
+  public Map<String, String> findAccessTokens(Collection<String> keys) {
+    Map<String, String> accessTokens = new LinkedHashMap<>();
+    if (keys == null || keys.isEmpty()) {
+      return accessTokens;
+    }
+    try {
+      List<String> keyList = new ArrayList<>(keys);
+      List<String> values = redis.opsForValue().multiGet(keyList.stream()
+          .map(jwtCacheProperties::addKeyPrefix)
+          .collect(Collectors.toList()));
+      for (int i = 0; values != null && i < values.size(); i++) {
+        String accessToken = values.get(i);
+        if (accessToken != null) {
+          accessTokens.put(keyList.get(i), accessToken);
+          if (refreshScheduler != null) {
+            refreshScheduler.accessed(keyList.get(i));
+          }
+        }
+      }
+
+    } catch (RuntimeException e) {
+      log.error("Getting access tokens from redis cache failed.", e);
+    }
+    return accessTokens;
+  }
+
   @Override
   public void putAccessToken(String key, String accessToken) {
     try {
@@ -78,14 +126,30 @@ public class RedisAccessTokenCache implements AccessTokenCache {
       String dbKey = jwtCacheProperties.addKeyPrefix(key);
       Optional.ofNullable(findExpirationTimeFn.apply(accessToken))
           .filter(expirationTime -> expirationTime.getTime() > millis)
-          .ifPresent(expirationTime -> {
-            redis.opsForValue().set(dbKey, accessToken);
-            redis.expireAt(dbKey, expirationTime);
-          });
+          .ifPresent(expirationTime -> redis.opsForValue().set(
+              dbKey,
+              accessToken,
+              Duration.ofMillis(expirationTime.getTime() - System.currentTimeMillis())));
 
     } catch (RuntimeException e) {
       log.error("Putting access token into the redis cache failed.", e);
     }
   }
 
+  @Override
+  public void putAccessToken(String key, String accessToken, Supplier<String> refreshFn) {
+    putAccessToken(key, accessToken);
+    if (refreshScheduler != null && refreshFn != null) {
+      refreshScheduler.schedule(key, accessToken,
+          () -> putAccessToken(key, refreshFn.get(), refreshFn));
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (refreshScheduler != null) {
+      refreshScheduler.destroy();
+    }
+  }
+
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.ClassUtils;
+
+/**
+ * The reactive user context scope auto configuration.
+ *
+ * @author Christian Bremer
+ */
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@ConditionalOnClass(name = {
+    "org.bremersee.security.core.ReactiveUserContextCaller",
+    "org.bremersee.security.core.UserContextScopeWebFilter"
+})
+@Configuration
+@Slf4j
+public class ReactiveUserContextScopeAutoConfiguration {
+
+  /**
+   * Init.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void init() {
+    log.info("\n"
+            + "*********************************************************************************\n"
+            + "* {}\n"
+            + "*********************************************************************************",
+        ClassUtils.getUserClass(getClass()).getSimpleName());
+  }
+
+  /**
+   * Creates the web filter, that opens a user context scope for every request, so that the user
+   * context of a reactive user context caller is created only once per request.
+   *
+   * @return the user context scope web filter
+   */
+  @ConditionalOnMissingBean
+  @Bean
+  public UserContextScopeWebFilter userContextScopeWebFilter() {
+    log.info("Creating {} ...", UserContextScopeWebFilter.class.getSimpleName());
+    return new UserContextScopeWebFilter();
+  }
+
+}
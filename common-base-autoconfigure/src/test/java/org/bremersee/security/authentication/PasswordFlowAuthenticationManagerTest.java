@@ -19,11 +19,14 @@ package org.bremersee.security.authentication;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
@@ -128,6 +131,44 @@ class PasswordFlowAuthenticationManagerTest {
     assertEquals(jwt.getHeaders(), actualJwt.getHeaders());
   }
 
+  /**
+   * Tests authenticate with cache.
+   */
+  @Test
+  void authenticateWithCache() {
+    Map<String, Object> headers = new HashMap<>();
+    headers.put("test-key", "test-value");
+    Map<String, Object> claims = new HashMap<>();
+    claims.put("sub", "an_username");
+    Jwt jwt = jwt(headers, claims);
+
+    JwtDecoder jwtDecoder = workingJwtDecoder(jwt);
+    AccessTokenRetriever<String> tokenRetriever = tokenRetriever();
+    PasswordFlowAuthenticationManager manager = new PasswordFlowAuthenticationManager(
+        properties(),
+        jwtDecoder,
+        null,
+        tokenRetriever);
+    manager.setAuthenticationCacheSize(10);
+
+    Authentication loginAuthentication = mock(Authentication.class);
+    when(loginAuthentication.getName()).thenReturn(UUID.randomUUID().toString());
+    when(loginAuthentication.getCredentials()).thenReturn("a_password");
+
+    Authentication first = manager.authenticate(loginAuthentication);
+    Authentication second = manager.authenticate(loginAuthentication);
+    assertNotNull(first);
+    assertNotNull(second);
+    assertNotSame(first, second);
+    assertEquals(first.getName(), second.getName());
+    verify(jwtDecoder, times(1)).decode(anyString());
+    verify(tokenRetriever, times(1)).retrieveAccessToken(any(PasswordFlowProperties.class));
+
+    when(loginAuthentication.getCredentials()).thenReturn("another_password");
+    assertNotNull(manager.authenticate(loginAuthentication));
+    verify(jwtDecoder, times(2)).decode(anyString());
+  }
+
   /**
    * Tests authenticate fails.
    */
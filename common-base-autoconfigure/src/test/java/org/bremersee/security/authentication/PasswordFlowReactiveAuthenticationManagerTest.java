@@ -18,10 +18,13 @@ package org.bremersee.security.authentication;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
@@ -108,6 +111,50 @@ class PasswordFlowReactiveAuthenticationManagerTest {
         .verifyComplete();
   }
 
+  /**
+   * Tests authenticate with cache.
+   */
+  @Test
+  void authenticateWithCache() {
+    Map<String, Object> headers = new HashMap<>();
+    headers.put("test-key", "test-value");
+    Map<String, Object> claims = new HashMap<>();
+    claims.put("sub", "an_username");
+    Jwt jwt = jwt(headers, claims);
+
+    ReactiveJwtDecoder jwtDecoder = workingJwtDecoder(jwt);
+    AccessTokenRetriever<Mono<String>> retriever = retriever();
+    PasswordFlowReactiveAuthenticationManager manager
+        = new PasswordFlowReactiveAuthenticationManager(
+        properties(),
+        jwtDecoder,
+        null,
+        retriever);
+    manager.setAuthenticationCacheSize(10);
+
+    Authentication loginAuthentication = mock(Authentication.class);
+    when(loginAuthentication.getName()).thenReturn("an_username");
+    when(loginAuthentication.getCredentials()).thenReturn("a_password");
+
+    Authentication first = manager.authenticate(loginAuthentication).block();
+    StepVerifier.create(manager.authenticate(loginAuthentication))
+        .assertNext(second -> {
+          assertNotNull(first);
+          assertNotSame(first, second);
+          assertEquals(first.getName(), second.getName());
+        })
+        .verifyComplete();
+    verify(jwtDecoder, times(1)).decode(anyString());
+    verify(retriever, times(1)).retrieveAccessToken(any(PasswordFlowProperties.class));
+
+    when(loginAuthentication.getCredentials()).thenReturn("another_password");
+    StepVerifier.create(manager.authenticate(loginAuthentication))
+        .expectNextCount(1)
+        .verifyComplete();
+    verify(jwtDecoder, times(2)).decode(anyString());
+    verify(retriever, times(2)).retrieveAccessToken(any(PasswordFlowProperties.class));
+  }
+
   /**
    * Tests authenticate fails.
    */
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.data.mongodb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import lombok.Builder;
+import lombok.ToString;
+import org.bremersee.security.access.AclPredicate;
+import org.bremersee.security.access.AclPredicate.ContainsAny;
+import org.bremersee.security.access.AclPredicate.IsGuest;
+import org.bremersee.security.access.AclPredicate.IsOwner;
+import org.bremersee.security.access.AclPredicate.Or;
+import org.bremersee.security.access.AclPredicate.Principal;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Translates an {@link AclPredicate} into a mongo {@link Criteria}, so that the permission check
+ * is done by the database (and can use its indexes) instead of in memory after loading the
+ * documents.
+ *
+ * <p>The default field names match the layout of an acl, that is stored as embedded document
+ * {@code acl} with an {@code owner} and a map of {@code entries} (the key is the permission),
+ * where each entry has the fields {@code guest}, {@code users}, {@code roles} and {@code groups}:
+ * <pre>
+ * { "acl": { "owner": "anna", "entries": { "read": { "guest": false, "users": ["stephan"],
+ *   "roles": ["ROLE_USER"], "groups": [] } } } }
+ * </pre>
+ *
+ * @author Christian Bremer
+ */
+@ToString
+public class AclCriteriaFactory implements AclPredicate.Visitor<Criteria> {
+
+  private final String aclPath;
+
+  private final String ownerField;
+
+  private final String entriesField;
+
+  private final String guestField;
+
+  private final String usersField;
+
+  private final String rolesField;
+
+  private final String groupsField;
+
+  /**
+   * Instantiates a new acl criteria factory with the default field names.
+   */
+  public AclCriteriaFactory() {
+    this(null, null, null, null, null, null, null);
+  }
+
+  /**
+   * Instantiates a new acl criteria factory.
+   *
+   * @param aclPath the path of the acl in the document (default is {@code acl}; an empty
+   *     string means, that the acl fields are top level fields of the document)
+   * @param ownerField the owner field (default is {@code owner})
+   * @param entriesField the entries field (default is {@code entries})
+   * @param guestField the guest field (default is {@code guest})
+   * @param usersField the users field (default is {@code users})
+   * @param rolesField the roles field (default is {@code roles})
+   * @param groupsField the groups field (default is {@code groups})
+   */
+  @Builder
+  public AclCriteriaFactory(
+      @Nullable String aclPath,
+      @Nullable String ownerField,
+      @Nullable String entriesField,
+      @Nullable String guestField,
+      @Nullable String usersField,
+      @Nullable String rolesField,
+      @Nullable String groupsField) {
+    this.aclPath = aclPath != null ? aclPath : "acl";
+    this.ownerField = StringUtils.hasText(ownerField) ? ownerField : "owner";
+    this.entriesField = StringUtils.hasText(entriesField) ? entriesField : "entries";
+    this.guestField = StringUtils.hasText(guestField) ? guestField : "guest";
+    this.usersField = StringUtils.hasText(usersField) ? usersField : "users";
+    this.rolesField = StringUtils.hasText(rolesField) ? rolesField : "roles";
+    this.groupsField = StringUtils.hasText(groupsField) ? groupsField : "groups";
+  }
+
+  /**
+   * Creates the criteria of the given predicate tree.
+   *
+   * @param predicate the predicate tree
+   * @return the criteria
+   */
+  public Criteria create(AclPredicate predicate) {
+    return predicate.accept(this);
+  }
+
+  /**
+   * Creates the indexes, that are used by the criteria of the given permissions. The fields of
+   * the principals are arrays, so these are multikey indexes.
+   *
+   * @param permissions the permissions
+   * @return the indexes
+   */
+  public List<Index> createIndexes(String... permissions) {
+    List<Index> indexes = new ArrayList<>();
+    indexes.add(new Index().on(path(ownerField), Direction.ASC));
+    if (permissions != null) {
+      Arrays.stream(permissions)
+          .filter(StringUtils::hasText)
+          .map(String::toLowerCase)
+          .distinct()
+          .forEach(permission -> {
+            indexes.add(new Index().on(path(entriesField, permission, guestField), Direction.ASC));
+            indexes.add(new Index().on(path(entriesField, permission, usersField), Direction.ASC));
+            indexes.add(new Index().on(path(entriesField, permission, rolesField), Direction.ASC));
+            indexes.add(new Index().on(path(entriesField, permission, groupsField), Direction.ASC));
+          });
+    }
+    return indexes;
+  }
+
+  @Override
+  public Criteria visit(Or or) {
+    List<Criteria> operands = or.getOperands().stream()
+        .map(operand -> operand.accept(this))
+        .collect(Collectors.toList());
+    if (operands.isEmpty()) {
+      // an empty $or isn't allowed, but $in with an empty array matches nothing
+      return Criteria.where(path(ownerField)).in(Collections.emptyList());
+    }
+    if (operands.size() == 1) {
+      return operands.get(0);
+    }
+    return new Criteria().orOperator(operands.toArray(new Criteria[0]));
+  }
+
+  @Override
+  public Criteria visit(IsOwner isOwner) {
+    return Criteria.where(path(ownerField)).is(isOwner.getUser());
+  }
+
+  @Override
+  public Criteria visit(IsGuest isGuest) {
+    return Criteria.where(path(entriesField, isGuest.getPermission(), guestField)).is(true);
+  }
+
+  @Override
+  public Criteria visit(ContainsAny containsAny) {
+    String field = field(containsAny.getPrincipal());
+    return Criteria.where(path(entriesField, containsAny.getPermission(), field))
+        .in(containsAny.getValues());
+  }
+
+  private String field(Principal principal) {
+    switch (principal) {
+      case USER:
+        return usersField;
+      case ROLE:
+        return rolesField;
+      default:
+        return groupsField;
+    }
+  }
+
+  private String path(String... fields) {
+    return Arrays.stream(fields)
+        .filter(Objects::nonNull)
+        .filter(field -> !field.isEmpty())
+        .collect(Collectors.joining(".", aclPath.isEmpty() ? "" : aclPath + ".", ""));
+  }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.data.mongodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.bremersee.security.access.AclPredicate;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * The acl criteria factory test.
+ *
+ * @author Christian Bremer
+ */
+class AclCriteriaFactoryTest {
+
+  /**
+   * Create.
+   */
+  @Test
+  void create() {
+    AclPredicate predicate = AclPredicate
+        .of("anna", List.of("ROLE_USER"), List.of("friends"), "READ");
+    Criteria criteria = new AclCriteriaFactory().create(predicate);
+    Document expected = new Document("$or", List.of(
+        new Document("acl.owner", "anna"),
+        new Document("acl.entries.read.guest", true),
+        new Document("acl.entries.read.users", new Document("$in", List.of("anna"))),
+        new Document("acl.entries.read.roles", new Document("$in", List.of("ROLE_USER"))),
+        new Document("acl.entries.read.groups", new Document("$in", List.of("friends")))));
+    assertEquals(expected.toJson(), criteria.getCriteriaObject().toJson());
+  }
+
+  /**
+   * Create with custom fields.
+   */
+  @Test
+  void createWithCustomFields() {
+    AclCriteriaFactory factory = AclCriteriaFactory.builder()
+        .aclPath("")
+        .entriesField("permissions")
+        .build();
+    Criteria criteria = factory.create(AclPredicate.of(null, null, null, "write"));
+    assertEquals(
+        new Document("permissions.write.guest", true).toJson(),
+        criteria.getCriteriaObject().toJson());
+  }
+
+  /**
+   * Create from empty or.
+   */
+  @Test
+  void createFromEmptyOr() {
+    Criteria criteria = new AclCriteriaFactory().create(new AclPredicate.Or(null));
+    assertEquals(
+        new Document("acl.owner", new Document("$in", List.of())).toJson(),
+        criteria.getCriteriaObject().toJson());
+  }
+
+  /**
+   * Create indexes.
+   */
+  @Test
+  void createIndexes() {
+    List<Index> indexes = new AclCriteriaFactory().createIndexes("read", "READ");
+    assertEquals(5, indexes.size());
+    assertEquals(
+        new Document("acl.entries.read.users", 1),
+        indexes.get(2).getIndexKeys());
+  }
+
+}
@@ -23,6 +23,7 @@ import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import org.springframework.lang.Nullable;
@@ -106,13 +107,84 @@ public interface MinioRepository {
   }
 
   /**
-   * Find all objects.
+   * Find all objects. All objects are loaded into the returned list and objects, that can't be
+   * read, are skipped; for large buckets use {@link #streamAll(String)}.
    *
    * @param prefix the prefix
    * @return the list
    */
   List<MinioMultipartFile> findAll(String prefix);
 
+  /**
+   * Streams all objects.
+   *
+   * @return the stream
+   * @see #streamAll(String, String, int)
+   */
+  default Stream<MinioMultipartFile> streamAll() {
+    return streamAll((String) null);
+  }
+
+  /**
+   * Streams all objects with the given prefix.
+   *
+   * @param prefix the prefix
+   * @return the stream
+   * @see #streamAll(String, String, int)
+   */
+  default Stream<MinioMultipartFile> streamAll(@Nullable String prefix) {
+    return streamAll(prefix, null, 0);
+  }
+
+  /**
+   * Streams all objects with the given prefix. The objects are listed lazily page by page while
+   * the stream is consumed, so that only one page is held in memory. If an object can't be read,
+   * the error is passed to the error handler of the minio operations; the default error handler
+   * terminates the stream with a {@link MinioException}.
+   *
+   * <p>The default implementation loads all objects with {@link #findAll(String)} and skips the
+   * objects up to {@code startAfter}; implementations should override it to list lazily.
+   *
+   * @param prefix the prefix
+   * @param startAfter the object name, after which the listing starts (can be {@code null}); it
+   *     can be used to resume an interrupted listing
+   * @param pageSize the maximum number of objects per request (1 to 1000); a value less than 1
+   *     uses the default page size of the server
+   * @return the stream
+   */
+  default Stream<MinioMultipartFile> streamAll(
+      @Nullable String prefix,
+      @Nullable String startAfter,
+      int pageSize) {
+    return findAll(prefix).stream()
+        .filter(file -> startAfter == null || file.getName().compareTo(startAfter) > 0);
+  }
+
+  /**
+   * Streams all objects of the given sub-prefixes. The sub-prefixes are listed one after another
+   * on the calling thread, so no other thread pool is used. To list them concurrently with a
+   * bounded concurrency, use the reactive
+   * {@link org.bremersee.data.minio.reactive.BlockingMinioRepositoryAdapter}. The sub-prefixes
+   * must not overlap (like {@code a/} and {@code a/b/}), otherwise objects are returned more than
+   * once.
+   *
+   * @param prefixes the sub-prefixes; if it is empty, the whole bucket is listed
+   * @param pageSize the maximum number of objects per request (1 to 1000); a value less than 1
+   *     uses the default page size of the server
+   * @return the stream
+   */
+  default Stream<MinioMultipartFile> streamAll(
+      @Nullable Collection<String> prefixes,
+      int pageSize) {
+
+    if (prefixes == null || prefixes.isEmpty()) {
+      return streamAll(null, null, pageSize);
+    }
+    return prefixes.stream()
+        .distinct()
+        .flatMap(prefix -> streamAll(prefix, null, pageSize));
+  }
+
   /**
    * Delete.
    *
@@ -45,7 +45,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lombok.Getter;
 import org.bremersee.exception.ServiceException;
 import org.bremersee.web.multipart.FileAwareMultipartFile;
@@ -270,6 +273,36 @@ public class MinioRepositoryImpl implements MinioRepository {
     return fileList;
   }
 
+  @Override
+  public Stream<MinioMultipartFile> streamAll(String prefix, String startAfter, int pageSize) {
+    ListObjectsArgs.Builder builder = ListObjectsArgs.builder()
+        .region(region)
+        .bucket(bucket)
+        .includeVersions(enableVersioning)
+        .recursive(true)
+        .prefix(prefix);
+    if (StringUtils.hasText(startAfter)) {
+      builder.startAfter(startAfter);
+    }
+    if (pageSize > 0) {
+      builder.maxKeys(pageSize);
+    }
+    ListObjectsArgs args = builder.build();
+    return StreamSupport
+        .stream(
+            () -> minio.listObjects(args).spliterator(),
+            Spliterator.ORDERED | Spliterator.NONNULL,
+            false)
+        .map(this::getItem)
+        .filter(item -> item != null && !item.isDir() && !item.isDeleteMarker())
+        .map(item -> new MinioMultipartFileImpl(getMinioOperations(), region, bucket, item));
+  }
+
+  private Item getItem(Result<Item> result) {
+    // the error is handled by the error handler of the minio operations
+    return minio.execute(minioClient -> result.get());
+  }
+
   @Override
   public void delete(MinioObjectId id) {
     minio.removeObject(RemoveObjectArgs.builder()
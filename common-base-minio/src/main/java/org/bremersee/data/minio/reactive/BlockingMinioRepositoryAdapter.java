@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.data.minio.reactive;
+
+import java.util.Collection;
+import org.bremersee.data.minio.MinioMultipartFile;
+import org.bremersee.data.minio.MinioRepository;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Lists the objects of a (blocking) minio repository as flux. The listing runs on a scheduler
+ * for blocking tasks instead of the event loop and is paged lazily: the next page is only
+ * requested from the server, when the subscriber requests more objects than are left in the
+ * current page. Errors of the listing terminate the flux with a
+ * {@link org.bremersee.data.minio.MinioException}.
+ *
+ * @author Christian Bremer
+ */
+public class BlockingMinioRepositoryAdapter {
+
+  private final MinioRepository repository;
+
+  private final Scheduler scheduler;
+
+  /**
+   * Instantiates a new blocking minio repository adapter.
+   *
+   * @param repository the minio repository
+   * @param scheduler the scheduler for the blocking calls (can be {@code null}, then the bounded
+   *     elastic scheduler is used)
+   */
+  public BlockingMinioRepositoryAdapter(MinioRepository repository, @Nullable Scheduler scheduler) {
+    Assert.notNull(repository, "Minio repository must be present.");
+    this.repository = repository;
+    this.scheduler = scheduler != null ? scheduler : Schedulers.boundedElastic();
+  }
+
+  /**
+   * Gets the minio repository.
+   *
+   * @return the minio repository
+   */
+  public MinioRepository getRepository() {
+    return repository;
+  }
+
+  /**
+   * Find all objects with the given prefix.
+   *
+   * @param prefix the prefix
+   * @return the flux of objects
+   */
+  public Flux<MinioMultipartFile> findAll(@Nullable String prefix) {
+    return findAll(prefix, null, 0);
+  }
+
+  /**
+   * Find all objects with the given prefix.
+   *
+   * @param prefix the prefix
+   * @param startAfter the object name, after which the listing starts (can be {@code null})
+   * @param pageSize the maximum number of objects per request (1 to 1000); a value less than 1
+   *     uses the default page size of the server
+   * @return the flux of objects
+   * @see MinioRepository#streamAll(String, String, int)
+   */
+  public Flux<MinioMultipartFile> findAll(
+      @Nullable String prefix,
+      @Nullable String startAfter,
+      int pageSize) {
+
+    return Flux
+        .fromStream(() -> repository.streamAll(prefix, startAfter, pageSize))
+        .subscribeOn(scheduler);
+  }
+
+  /**
+   * Find all objects of the given sub-prefixes. Up to the given concurrency the sub-prefixes are
+   * listed in parallel and their objects are merged, so the order of the objects is undefined.
+   * The sub-prefixes must not overlap.
+   *
+   * @param prefixes the sub-prefixes; if it is empty, the whole bucket is listed
+   * @param pageSize the maximum number of objects per request (1 to 1000); a value less than 1
+   *     uses the default page size of the server
+   * @param concurrency the maximum number of sub-prefixes, that are listed in parallel
+   * @return the flux of objects
+   */
+  public Flux<MinioMultipartFile> findAll(
+      @Nullable Collection<String> prefixes,
+      int pageSize,
+      int concurrency) {
+
+    if (prefixes == null || prefixes.isEmpty()) {
+      return findAll(null, null, pageSize);
+    }
+    return Flux.fromIterable(prefixes)
+        .distinct()
+        .flatMap(prefix -> findAll(prefix, null, pageSize), Math.max(1, concurrency));
+  }
+
+  @Override
+  public String toString() {
+    return "BlockingMinioRepositoryAdapter {repository = " + repository
+        + ", scheduler = " + scheduler
+        + '}';
+  }
+}
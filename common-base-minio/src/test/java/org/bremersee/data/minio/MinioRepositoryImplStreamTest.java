@@ -0,0 +1,195 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.data.minio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.Result;
+import io.minio.messages.Item;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * The minio repository implementation stream test.
+ *
+ * @author Christian Bremer
+ */
+class MinioRepositoryImplStreamTest {
+
+  private static Item item(String name, boolean dir) {
+    Item item = mock(Item.class);
+    when(item.etag()).thenReturn("1234");
+    when(item.isDeleteMarker()).thenReturn(false);
+    when(item.isDir()).thenReturn(dir);
+    when(item.isLatest()).thenReturn(true);
+    when(item.lastModified()).thenReturn(ZonedDateTime.now());
+    when(item.objectName()).thenReturn(name);
+    when(item.size()).thenReturn(15L);
+    return item;
+  }
+
+  private static MinioTemplate minioOperations() {
+    return spy(new MinioTemplate(mock(MinioClient.class)));
+  }
+
+  private static MinioRepository repository(MinioOperations minioOperations) {
+    return new MinioRepositoryImpl(
+        minioOperations, null, "testbucket", false, false, Duration.ofDays(1L));
+  }
+
+  /**
+   * Stream all.
+   */
+  @Test
+  void streamAll() {
+    List<Result<Item>> results = List.of(
+        new Result<>(item("a/", true)),
+        new Result<>(item("a/1.txt", false)),
+        new Result<>(item("a/2.txt", false)));
+    MinioTemplate minioOperations = minioOperations();
+    doReturn(results).when(minioOperations).listObjects(any(ListObjectsArgs.class));
+    MinioRepository repository = repository(minioOperations);
+
+    Stream<MinioMultipartFile> stream = repository.streamAll("a/", "a/0.txt", 100);
+    verify(minioOperations, times(0)).listObjects(any(ListObjectsArgs.class));
+    List<String> names = stream
+        .map(MinioMultipartFile::getName)
+        .collect(Collectors.toList());
+    assertEquals(List.of("a/1.txt", "a/2.txt"), names);
+
+    ArgumentCaptor<ListObjectsArgs> captor = ArgumentCaptor.forClass(ListObjectsArgs.class);
+    verify(minioOperations).listObjects(captor.capture());
+    assertEquals("a/", captor.getValue().prefix());
+    assertEquals("a/0.txt", captor.getValue().startAfter());
+    assertEquals(100, captor.getValue().maxKeys());
+  }
+
+  /**
+   * Stream all lazily.
+   */
+  @Test
+  void streamAllLazily() {
+    AtomicInteger fetched = new AtomicInteger();
+    Iterable<Result<Item>> results = () -> IntStream.range(0, 100000)
+        .peek(i -> fetched.incrementAndGet())
+        .mapToObj(i -> new Result<>(item(i + ".txt", false)))
+        .iterator();
+    MinioTemplate minioOperations = minioOperations();
+    doReturn(results).when(minioOperations).listObjects(any(ListObjectsArgs.class));
+
+    assertEquals(3L, repository(minioOperations).streamAll().limit(3L).count());
+    assertTrue(fetched.get() <= 4);
+  }
+
+  /**
+   * Stream all with error.
+   */
+  @Test
+  void streamAllWithError() {
+    List<Result<Item>> results = List.of(
+        new Result<>(item("1.txt", false)),
+        new Result<>(new IOException("Connection reset")));
+    MinioTemplate minioOperations = minioOperations();
+    doReturn(results).when(minioOperations).listObjects(any(ListObjectsArgs.class));
+    Stream<MinioMultipartFile> stream = repository(minioOperations).streamAll();
+
+    assertThrows(MinioException.class, () -> stream.collect(Collectors.toList()));
+  }
+
+  /**
+   * Stream all with error and the error handler of the minio operations.
+   */
+  @Test
+  void streamAllWithErrorHandler() {
+    List<Result<Item>> results = List.of(
+        new Result<>(item("1.txt", false)),
+        new Result<>(new IOException("Connection reset")),
+        new Result<>(item("2.txt", false)));
+    MinioTemplate minioOperations = minioOperations();
+    doReturn(results).when(minioOperations).listObjects(any(ListObjectsArgs.class));
+    List<Throwable> errors = new ArrayList<>();
+    minioOperations.setErrorHandler(errors::add);
+
+    List<String> names = repository(minioOperations).streamAll()
+        .map(MinioMultipartFile::getName)
+        .collect(Collectors.toList());
+    assertEquals(List.of("1.txt", "2.txt"), names);
+    assertEquals(1, errors.size());
+    assertTrue(errors.get(0) instanceof IOException);
+  }
+
+  /**
+   * Stream all of sub-prefixes.
+   */
+  @Test
+  void streamAllOfSubPrefixes() {
+    MinioTemplate minioOperations = minioOperations();
+    doAnswer(invocation -> {
+      String prefix = invocation.getArgument(0, ListObjectsArgs.class).prefix();
+      return List.of(
+          new Result<>(item(prefix + "1.txt", false)),
+          new Result<>(item(prefix + "2.txt", false)));
+    }).when(minioOperations).listObjects(any(ListObjectsArgs.class));
+    MinioRepository repository = repository(minioOperations);
+
+    List<String> names = repository.streamAll(List.of("a/", "b/", "c/", "a/"), 10)
+        .map(MinioMultipartFile::getName)
+        .collect(Collectors.toList());
+    assertEquals(
+        List.of("a/1.txt", "a/2.txt", "b/1.txt", "b/2.txt", "c/1.txt", "c/2.txt"),
+        names);
+    verify(minioOperations, times(3)).listObjects(any(ListObjectsArgs.class));
+  }
+
+  /**
+   * Stream all of no sub-prefixes.
+   */
+  @Test
+  void streamAllOfNoSubPrefixes() {
+    List<Result<Item>> results = List.of(new Result<>(item("1.txt", false)));
+    MinioTemplate minioOperations = minioOperations();
+    doReturn(results).when(minioOperations).listObjects(any(ListObjectsArgs.class));
+
+    assertEquals(1L, repository(minioOperations).streamAll(List.of(), 0).count());
+    ArgumentCaptor<ListObjectsArgs> captor = ArgumentCaptor.forClass(ListObjectsArgs.class);
+    verify(minioOperations).listObjects(captor.capture());
+    assertNull(captor.getValue().prefix());
+  }
+
+}
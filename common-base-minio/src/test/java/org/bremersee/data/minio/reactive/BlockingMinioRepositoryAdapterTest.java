@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.data.minio.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bremersee.data.minio.DefaultMinioErrorHandler;
+import org.bremersee.data.minio.MinioException;
+import org.bremersee.data.minio.MinioMultipartFile;
+import org.bremersee.data.minio.MinioRepository;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+/**
+ * The blocking minio repository adapter test.
+ *
+ * @author Christian Bremer
+ */
+class BlockingMinioRepositoryAdapterTest {
+
+  private static MinioMultipartFile file(String name) {
+    MinioMultipartFile file = mock(MinioMultipartFile.class);
+    when(file.getName()).thenReturn(name);
+    return file;
+  }
+
+  /**
+   * Find all.
+   */
+  @Test
+  void findAll() {
+    AtomicReference<String> threadName = new AtomicReference<>();
+    MinioMultipartFile file1 = file("a/1.txt");
+    MinioMultipartFile file2 = file("a/2.txt");
+    MinioRepository repository = mock(MinioRepository.class);
+    when(repository.streamAll(eq("a/"), isNull(), anyInt())).thenAnswer(invocation -> {
+      threadName.set(Thread.currentThread().getName());
+      return Stream.of(file1, file2);
+    });
+    BlockingMinioRepositoryAdapter adapter = new BlockingMinioRepositoryAdapter(repository, null);
+
+    StepVerifier.create(adapter.findAll("a/").map(MinioMultipartFile::getName))
+        .expectNext("a/1.txt", "a/2.txt")
+        .verifyComplete();
+    assertNotEquals(Thread.currentThread().getName(), threadName.get());
+  }
+
+  /**
+   * Find all of sub-prefixes.
+   */
+  @Test
+  void findAllOfSubPrefixes() {
+    Map<String, MinioMultipartFile> files = Map.of(
+        "a/", file("a/1.txt"),
+        "b/", file("b/1.txt"),
+        "c/", file("c/1.txt"));
+    MinioRepository repository = mock(MinioRepository.class);
+    when(repository.streamAll(anyString(), isNull(), eq(10)))
+        .thenAnswer(invocation -> Stream.of(files.get(invocation.getArgument(0, String.class))));
+    BlockingMinioRepositoryAdapter adapter = new BlockingMinioRepositoryAdapter(repository, null);
+
+    StepVerifier
+        .create(adapter.findAll(List.of("a/", "b/", "c/", "a/"), 10, 2)
+            .map(MinioMultipartFile::getName)
+            .collect(Collectors.toList()))
+        .assertNext(names -> {
+          assertEquals(3, names.size());
+          assertEquals(Set.of("a/1.txt", "b/1.txt", "c/1.txt"), Set.copyOf(names));
+        })
+        .verifyComplete();
+  }
+
+  /**
+   * Find all with error.
+   */
+  @Test
+  void findAllWithError() {
+    MinioException exception = new DefaultMinioErrorHandler()
+        .map(new IOException("Connection reset"));
+    MinioMultipartFile file = file("1.txt");
+    MinioRepository repository = mock(MinioRepository.class);
+    when(repository.streamAll(isNull(), isNull(), anyInt()))
+        .thenAnswer(invocation -> Stream.of(file).map(f -> {
+          throw exception;
+        }));
+    BlockingMinioRepositoryAdapter adapter = new BlockingMinioRepositoryAdapter(repository, null);
+
+    StepVerifier.create(adapter.findAll(null))
+        .expectError(MinioException.class)
+        .verify();
+  }
+
+}
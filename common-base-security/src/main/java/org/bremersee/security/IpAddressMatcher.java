@@ -17,9 +17,7 @@
 package org.bremersee.security;
 
 import java.net.InetAddress;
-import java.net.UnknownHostException;
 import org.springframework.util.Assert;
-import org.springframework.util.StringUtils;
 
 /**
  * Matches a request based on IP Address or subnet mask matching against the remote address.
@@ -27,6 +25,8 @@ import org.springframework.util.StringUtils;
  * <p>Both IPv6 and IPv4 addresses are supported, but a matcher which is configured with an IPv4
  * address will never match a request which returns an IPv6 address, and vice-versa.
  *
+ * <p>The address or subnet is compiled once into an {@link IpAddressRangeSet}.
+ *
  * <p>The original Spring {@code org.springframework.security.web.util.matcher.IpAddressMatcher}
  * imports {@code javax.servlet.http.HttpServletRequest}, that is not available in a reactive
  * environment. Here is the method {@code boolean matches(HttpServletRequest request)} skipped and
@@ -36,8 +36,7 @@ import org.springframework.util.StringUtils;
  */
 public class IpAddressMatcher {
 
-  private final int numMaskBits;
-  private final InetAddress requiredAddress;
+  private final IpAddressRangeSet rangeSet;
 
   /**
    * Takes a specific IP address or a range specified using the IP/Netmask (e.g. 192.168.1.0/24 or
@@ -46,65 +45,30 @@ public class IpAddressMatcher {
    * @param ipAddress the address or range of addresses from which the request must come.
    */
   public IpAddressMatcher(String ipAddress) {
-
-    if (ipAddress.indexOf('/') > 0) {
-      String[] addressAndMask = StringUtils.split(ipAddress, "/");
-      //noinspection ConstantConditions
-      ipAddress = addressAndMask[0];
-      numMaskBits = Integer.parseInt(addressAndMask[1]);
-    } else {
-      numMaskBits = -1;
-    }
-    requiredAddress = parseAddress(ipAddress);
-    Assert.isTrue(requiredAddress.getAddress().length * 8 >= numMaskBits,
-        String.format("IP address %s is too short for bitmask of length %d",
-            ipAddress, numMaskBits));
+    Assert.hasText(ipAddress, "IP address must be present.");
+    rangeSet = IpAddressRangeSet.compile(ipAddress);
   }
 
   /**
-   * Matches an IPv6 and IPv4 address.
+   * Matches an IPv6 and IPv4 address literal. The address is not resolved by the name service.
    *
    * @param address the address
    * @return the {@code true} id the given address matches an IPv6 and IPv4 address, otherwise
    *     {@code false}
    */
   public boolean matches(String address) {
-    InetAddress remoteAddress = parseAddress(address);
-
-    if (!requiredAddress.getClass().equals(remoteAddress.getClass())) {
-      return false;
-    }
-
-    if (numMaskBits < 0) {
-      return remoteAddress.equals(requiredAddress);
-    }
-
-    byte[] remAddr = remoteAddress.getAddress();
-    byte[] reqAddr = requiredAddress.getAddress();
-
-    int numMaskFullBytes = numMaskBits / 8;
-    byte finalByte = (byte) (0xFF00 >> (numMaskBits & 0x07));
-
-    // System.out.println("Mask is " + new sun.misc.HexDumpEncoder().encode(mask));
-
-    for (int i = 0; i < numMaskFullBytes; i++) {
-      if (remAddr[i] != reqAddr[i]) {
-        return false;
-      }
-    }
-
-    if (finalByte != 0) {
-      return (remAddr[numMaskFullBytes] & finalByte) == (reqAddr[numMaskFullBytes] & finalByte);
-    }
-
-    return true;
+    return rangeSet.matches(address);
   }
 
-  private InetAddress parseAddress(String address) {
-    try {
-      return InetAddress.getByName(address);
-    } catch (UnknownHostException e) {
-      throw new IllegalArgumentException("Failed to parse address" + address, e);
-    }
+  /**
+   * Matches an IPv6 and IPv4 address.
+   *
+   * @param address the address
+   * @return the {@code true} id the given address matches an IPv6 and IPv4 address, otherwise
+   *     {@code false}
+   */
+  public boolean matches(InetAddress address) {
+    return rangeSet.matches(address);
   }
+
 }
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * A set of IPv4 and IPv6 address ranges, that is compiled once from ip addresses or subnets (e.g.
+ * 192.168.1.0/24 or fd00::/8). The ranges are merged and sorted, so that a lookup is a binary
+ * search without any name resolution.
+ *
+ * <p>An IPv4 range will never match an IPv6 address and vice-versa.
+ *
+ * @author Christian Bremer
+ */
+public final class IpAddressRangeSet {
+
+  private static final IpAddressRangeSet EMPTY = new IpAddressRangeSet(
+      Collections.emptyList(), Collections.emptyList());
+
+  private final long[] ipv4Starts;
+
+  private final long[] ipv4Ends;
+
+  private final long[] ipv6StartsHigh;
+
+  private final long[] ipv6StartsLow;
+
+  private final long[] ipv6EndsHigh;
+
+  private final long[] ipv6EndsLow;
+
+  private IpAddressRangeSet(List<Range> ipv4Ranges, List<Range> ipv6Ranges) {
+    List<Range> ipv4 = merge(ipv4Ranges);
+    ipv4Starts = new long[ipv4.size()];
+    ipv4Ends = new long[ipv4.size()];
+    for (int i = 0; i < ipv4.size(); i++) {
+      ipv4Starts[i] = ipv4.get(i).startLow;
+      ipv4Ends[i] = ipv4.get(i).endLow;
+    }
+    List<Range> ipv6 = merge(ipv6Ranges);
+    ipv6StartsHigh = new long[ipv6.size()];
+    ipv6StartsLow = new long[ipv6.size()];
+    ipv6EndsHigh = new long[ipv6.size()];
+    ipv6EndsLow = new long[ipv6.size()];
+    for (int i = 0; i < ipv6.size(); i++) {
+      ipv6StartsHigh[i] = ipv6.get(i).startHigh;
+      ipv6StartsLow[i] = ipv6.get(i).startLow;
+      ipv6EndsHigh[i] = ipv6.get(i).endHigh;
+      ipv6EndsLow[i] = ipv6.get(i).endLow;
+    }
+  }
+
+  /**
+   * Compiles the given ip addresses or subnets into a range set. Host names are resolved here once.
+   *
+   * @param ipAddresses the ip addresses or subnets (e.g. 192.168.1.0/24 or 202.24.0.0/14)
+   * @return the ip address range set
+   */
+  public static IpAddressRangeSet compile(Collection<String> ipAddresses) {
+    if (ipAddresses == null || ipAddresses.isEmpty()) {
+      return EMPTY;
+    }
+    List<Range> ipv4Ranges = new ArrayList<>();
+    List<Range> ipv6Ranges = new ArrayList<>();
+    ipAddresses.stream()
+        .filter(Objects::nonNull)
+        .map(String::trim)
+        .filter(StringUtils::hasText)
+        .forEach(ipAddress -> {
+          Range range = Range.parse(ipAddress);
+          if (range.ipv6) {
+            ipv6Ranges.add(range);
+          } else {
+            ipv4Ranges.add(range);
+          }
+        });
+    return new IpAddressRangeSet(ipv4Ranges, ipv6Ranges);
+  }
+
+  /**
+   * Compiles the given ip addresses or subnets into a range set.
+   *
+   * @param ipAddresses the ip addresses or subnets
+   * @return the ip address range set
+   */
+  public static IpAddressRangeSet compile(String... ipAddresses) {
+    return compile(ipAddresses != null ? List.of(ipAddresses) : null);
+  }
+
+  /**
+   * Determines whether this set contains no ranges.
+   *
+   * @return {@code true} if there are no ranges, otherwise {@code false}
+   */
+  public boolean isEmpty() {
+    return ipv4Starts.length == 0 && ipv6StartsHigh.length == 0;
+  }
+
+  /**
+   * Checks whether the given ip address literal is within one of the ranges. No name resolution
+   * is done, so a host name never matches.
+   *
+   * @param address the ip address literal
+   * @return {@code true} if the address matches, otherwise {@code false}
+   */
+  public boolean matches(String address) {
+    if (address == null || isEmpty()) {
+      return false;
+    }
+    long ipv4 = parseIpv4(address);
+    if (ipv4 >= 0L) {
+      return matchesIpv4(ipv4);
+    }
+    if (address.indexOf(':') < 0) {
+      return false;
+    }
+    try {
+      // an IPv6 literal is never resolved by the name service
+      return matches(InetAddress.getByName(address));
+    } catch (UnknownHostException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Checks whether the given ip address is within one of the ranges.
+   *
+   * @param address the address
+   * @return {@code true} if the address matches, otherwise {@code false}
+   */
+  public boolean matches(InetAddress address) {
+    if (address == null || isEmpty()) {
+      return false;
+    }
+    byte[] rawAddress = address.getAddress();
+    return rawAddress != null ? matches(rawAddress) : matches(address.getHostAddress());
+  }
+
+  /**
+   * Checks whether the given raw ip address (4 or 16 bytes in network byte order) is within one of
+   * the ranges.
+   *
+   * @param address the raw ip address
+   * @return {@code true} if the address matches, otherwise {@code false}
+   */
+  public boolean matches(byte[] address) {
+    if (address == null) {
+      return false;
+    }
+    if (address.length == 4) {
+      return matchesIpv4(toLong(address, 0, 4));
+    }
+    if (address.length == 16) {
+      return matchesIpv6(toLong(address, 0, 8), toLong(address, 8, 8));
+    }
+    return false;
+  }
+
+  private boolean matchesIpv4(long address) {
+    int low = 0;
+    int high = ipv4Starts.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (address < ipv4Starts[mid]) {
+        high = mid - 1;
+      } else if (address > ipv4Ends[mid]) {
+        low = mid + 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean matchesIpv6(long addressHigh, long addressLow) {
+    int low = 0;
+    int high = ipv6StartsHigh.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (compare(addressHigh, addressLow, ipv6StartsHigh[mid], ipv6StartsLow[mid]) < 0) {
+        high = mid - 1;
+      } else if (compare(addressHigh, addressLow, ipv6EndsHigh[mid], ipv6EndsLow[mid]) > 0) {
+        low = mid + 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int compare(long high1, long low1, long high2, long low2) {
+    int result = Long.compareUnsigned(high1, high2);
+    return result != 0 ? result : Long.compareUnsigned(low1, low2);
+  }
+
+  private static long toLong(byte[] bytes, int offset, int length) {
+    long value = 0L;
+    for (int i = offset; i < offset + length; i++) {
+      value = (value << 8) | (bytes[i] & 0xFF);
+    }
+    return value;
+  }
+
+  /**
+   * Parses an IPv4 address literal in dotted decimal notation without creating any objects.
+   *
+   * @param address the address
+   * @return the address as unsigned 32 bit value or {@code -1}, if it is not an IPv4 literal
+   */
+  static long parseIpv4(String address) {
+    int length = address.length();
+    if (length < 7 || length > 15) {
+      return -1L;
+    }
+    long result = 0L;
+    int octet = -1;
+    int dots = 0;
+    for (int i = 0; i < length; i++) {
+      char c = address.charAt(i);
+      if (c >= '0' && c <= '9') {
+        octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+        if (octet > 255) {
+          return -1L;
+        }
+      } else if (c == '.' && octet >= 0 && dots < 3) {
+        result = (result << 8) | octet;
+        octet = -1;
+        dots++;
+      } else {
+        return -1L;
+      }
+    }
+    if (dots != 3 || octet < 0) {
+      return -1L;
+    }
+    return (result << 8) | octet;
+  }
+
+  private static List<Range> merge(List<Range> ranges) {
+    if (ranges.size() < 2) {
+      return ranges;
+    }
+    List<Range> sorted = new ArrayList<>(ranges);
+    sorted.sort((r1, r2) -> compare(r1.startHigh, r1.startLow, r2.startHigh, r2.startLow));
+    List<Range> merged = new ArrayList<>(sorted.size());
+    Range current = sorted.get(0);
+    for (int i = 1; i < sorted.size(); i++) {
+      Range next = sorted.get(i);
+      if (compare(next.startHigh, next.startLow, current.endHigh, current.endLow) <= 0) {
+        if (compare(next.endHigh, next.endLow, current.endHigh, current.endLow) > 0) {
+          current = new Range(current.ipv6,
+              current.startHigh, current.startLow, next.endHigh, next.endLow);
+        }
+      } else {
+        merged.add(current);
+        current = next;
+      }
+    }
+    merged.add(current);
+    return merged;
+  }
+
+  private static class Range {
+
+    private final boolean ipv6;
+
+    private final long startHigh;
+
+    private final long startLow;
+
+    private final long endHigh;
+
+    private final long endLow;
+
+    private Range(boolean ipv6, long startHigh, long startLow, long endHigh, long endLow) {
+      this.ipv6 = ipv6;
+      this.startHigh = startHigh;
+      this.startLow = startLow;
+      this.endHigh = endHigh;
+      this.endLow = endLow;
+    }
+
+    private static Range parse(String ipAddress) {
+      String address = ipAddress;
+      int numMaskBits = -1;
+      if (ipAddress.indexOf('/') > 0) {
+        String[] addressAndMask = StringUtils.split(ipAddress, "/");
+        //noinspection ConstantConditions
+        address = addressAndMask[0];
+        numMaskBits = Integer.parseInt(addressAndMask[1]);
+      }
+      byte[] bytes;
+      try {
+        bytes = InetAddress.getByName(address).getAddress();
+      } catch (UnknownHostException e) {
+        throw new IllegalArgumentException("Failed to parse address " + address, e);
+      }
+      int numBits = bytes.length * 8;
+      Assert.isTrue(numBits >= numMaskBits,
+          String.format("IP address %s is too short for bitmask of length %d",
+              address, numMaskBits));
+      if (numMaskBits < 0) {
+        numMaskBits = numBits;
+      }
+      if (bytes.length == 4) {
+        long value = toLong(bytes, 0, 4);
+        long hostMask = numMaskBits == 0 ? 0xFFFFFFFFL : (1L << (32 - numMaskBits)) - 1L;
+        return new Range(false, 0L, value & ~hostMask, 0L, (value & ~hostMask) | hostMask);
+      }
+      long high = toLong(bytes, 0, 8);
+      long low = toLong(bytes, 8, 8);
+      long highHostMask = hostMask(Math.min(numMaskBits, 64), 64);
+      long lowHostMask = hostMask(Math.max(numMaskBits - 64, 0), 64);
+      return new Range(true,
+          high & ~highHostMask, low & ~lowHostMask,
+          high | highHostMask, low | lowHostMask);
+    }
+
+    private static long hostMask(int numMaskBits, int numBits) {
+      int hostBits = numBits - numMaskBits;
+      return hostBits >= 64 ? -1L : (1L << hostBits) - 1L;
+    }
+  }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bremersee.common.model.AccessControlEntry;
+import org.bremersee.common.model.AccessControlList;
+import org.bremersee.security.core.UserContext;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Filters access control lists (or domain objects with an access control list) by a permission
+ * of a user. The principals of the user and the permission are prepared once, so that every
+ * access control list is evaluated in place without copying it. Large collections can be
+ * evaluated in parallel (in the common fork join pool).
+ *
+ * @author Christian Bremer
+ */
+public class AclFilter implements Predicate<Acl<? extends Ace>> {
+
+  private final String user;
+
+  private final Set<String> roles;
+
+  private final Set<String> groups;
+
+  private final String permission;
+
+  private final int parallelThreshold;
+
+  /**
+   * Instantiates a new acl filter.
+   *
+   * @param userContext the user context
+   * @param permission the permission
+   */
+  public AclFilter(UserContext userContext, String permission) {
+    this(userContext, permission, 0);
+  }
+
+  /**
+   * Instantiates a new acl filter.
+   *
+   * @param userContext the user context
+   * @param permission the permission
+   * @param parallelThreshold the minimum size of a collection, that is filtered in parallel; a
+   *     value less than 1 disables parallel filtering
+   */
+  public AclFilter(UserContext userContext, String permission, int parallelThreshold) {
+    Assert.notNull(userContext, "User context must be present.");
+    Assert.hasText(permission, "Permission must be present.");
+    this.user = userContext.getUserId();
+    this.roles = userContext.getRoles();
+    this.groups = userContext.getGroups();
+    this.permission = permission.toLowerCase();
+    this.parallelThreshold = parallelThreshold;
+  }
+
+  /**
+   * Creates the store-agnostic predicate tree of this filter, that can be translated into a
+   * database query.
+   *
+   * @return the predicate tree
+   */
+  public AclPredicate toPredicate() {
+    return AclPredicate.of(user, roles, groups, permission);
+  }
+
+  @Override
+  public boolean test(@Nullable Acl<? extends Ace> acl) {
+    if (acl == null) {
+      return false;
+    }
+    if (user != null && user.equals(acl.getOwner())) {
+      return true;
+    }
+    Map<String, ? extends Ace> entries = acl.entryMap();
+    Ace ace = entries != null ? entries.get(permission) : null;
+    return ace != null && (ace.isGuest()
+        || (user != null && ace.getUsers().contains(user))
+        || containsAny(roles, ace.getRoles())
+        || containsAny(groups, ace.getGroups()));
+  }
+
+  /**
+   * Determines whether the user has the permission in the given access control list.
+   *
+   * @param acl the access control list
+   * @return {@code true} if the user has the permission, otherwise {@code false}
+   */
+  public boolean test(@Nullable AccessControlList acl) {
+    if (acl == null) {
+      return false;
+    }
+    if (user != null && user.equals(acl.getOwner())) {
+      return true;
+    }
+    if (acl.getEntries() == null) {
+      return false;
+    }
+    for (AccessControlEntry entry : acl.getEntries()) {
+      if (entry != null && permission.equalsIgnoreCase(entry.getPermission())
+          && (Boolean.TRUE.equals(entry.getGuest())
+          || (user != null && entry.getUsers() != null && entry.getUsers().contains(user))
+          || containsAny(roles, entry.getRoles())
+          || containsAny(groups, entry.getGroups()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean containsAny(Set<String> principals, Collection<String> aceValues) {
+    if (principals.isEmpty() || aceValues == null || aceValues.isEmpty()) {
+      return false;
+    }
+    for (String value : aceValues) {
+      if (value != null && principals.contains(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the access control lists, in which the user has the permission.
+   *
+   * @param <T> the type of the access control lists
+   * @param acls the access control lists
+   * @return the accessible access control lists
+   */
+  public <T extends Acl<? extends Ace>> List<T> filter(@Nullable Collection<T> acls) {
+    return filter(acls, Function.identity());
+  }
+
+  /**
+   * Returns the access control lists, in which the user has the permission.
+   *
+   * @param <T> the type of the access control lists
+   * @param acls the access control lists
+   * @return the accessible access control lists
+   */
+  public <T extends Acl<? extends Ace>> Stream<T> filter(@Nullable Stream<T> acls) {
+    return filter(acls, Function.identity());
+  }
+
+  /**
+   * Returns the objects, in whose access control list the user has the permission.
+   *
+   * @param <T> the type of the objects
+   * @param objects the objects
+   * @param aclFn the function, that returns the access control list of an object
+   * @return the accessible objects
+   */
+  public <T> List<T> filter(
+      @Nullable Collection<T> objects,
+      Function<? super T, ? extends Acl<? extends Ace>> aclFn) {
+    if (objects == null || objects.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return filter(stream(objects), aclFn).collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the objects, in whose access control list the user has the permission.
+   *
+   * @param <T> the type of the objects
+   * @param objects the objects
+   * @param aclFn the function, that returns the access control list of an object
+   * @return the accessible objects
+   */
+  public <T> Stream<T> filter(
+      @Nullable Stream<T> objects,
+      Function<? super T, ? extends Acl<? extends Ace>> aclFn) {
+    Assert.notNull(aclFn, "Acl function must be present.");
+    return objects == null
+        ? Stream.empty()
+        : objects.filter(Objects::nonNull).filter(object -> test(aclFn.apply(object)));
+  }
+
+  /**
+   * Returns the objects, in whose access control list (dto) the user has the permission.
+   *
+   * @param <T> the type of the objects
+   * @param objects the objects
+   * @param aclFn the function, that returns the access control list of an object
+   * @return the accessible objects
+   */
+  public <T> List<T> filterByAccessControlList(
+      @Nullable Collection<T> objects,
+      Function<? super T, AccessControlList> aclFn) {
+    Assert.notNull(aclFn, "Acl function must be present.");
+    if (objects == null || objects.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return stream(objects)
+        .filter(Objects::nonNull)
+        .filter(object -> test(aclFn.apply(object)))
+        .collect(Collectors.toList());
+  }
+
+  private <T> Stream<T> stream(Collection<T> objects) {
+    return parallelThreshold > 0 && objects.size() >= parallelThreshold
+        ? objects.parallelStream()
+        : objects.stream();
+  }
+
+  @Override
+  public String toString() {
+    return "AclFilter {user = " + user
+        + ", roles = " + roles
+        + ", groups = " + groups
+        + ", permission = " + permission
+        + ", parallelThreshold = " + parallelThreshold
+        + '}';
+  }
+
+}
@@ -22,9 +22,13 @@ import com.nimbusds.jwt.PlainJWT;
 import com.nimbusds.jwt.SignedJWT;
 import java.text.ParseException;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 import javax.validation.constraints.NotNull;
 import org.bremersee.exception.ServiceException;
 import org.springframework.cache.Cache;
@@ -51,6 +55,21 @@ public interface AccessTokenCache {
    */
   Optional<String> findAccessToken(@NotNull String key);
 
+  /**
+   * Find not expired access tokens of the given keys from cache. Implementations may fetch all
+   * keys with one request.
+   *
+   * @param keys the keys
+   * @return the found access tokens mapped by their keys
+   */
+  default Map<String, String> findAccessTokens(@NotNull Collection<String> keys) {
+    Map<String, String> accessTokens = new LinkedHashMap<>();
+    for (String key : keys) {
+      findAccessToken(key).ifPresent(accessToken -> accessTokens.put(key, accessToken));
+    }
+    return accessTokens;
+  }
+
   /**
    * Put new access token into the cache.
    *
@@ -59,6 +78,22 @@ public interface AccessTokenCache {
    */
   void putAccessToken(@NotNull String key, @NotNull String accessToken);
 
+  /**
+   * Put new access token into the cache. If the cache supports refresh ahead, it will use the given
+   * refresh function to renew the access token in the background before it expires.
+   *
+   * @param key the key
+   * @param accessToken the access token
+   * @param refreshFn the function that retrieves a new access token from the identity provider
+   *     without using the cache
+   */
+  default void putAccessToken(
+      @NotNull String key,
+      @NotNull String accessToken,
+      Supplier<String> refreshFn) {
+    putAccessToken(key, accessToken);
+  }
+
   /**
    * Checks whether the access token is expired. If no expiration claim is present, the result will
    * always be {@code true}.
@@ -156,6 +191,24 @@ public interface AccessTokenCache {
      */
     Builder withKeyPrefix(String keyPrefix);
 
+    /**
+     * With refresh ahead. Tokens, that are used, will be renewed in the background after the given
+     * fraction of their lifetime. A value of {@code null} disables refresh ahead.
+     *
+     * @param lifetimeFraction the lifetime fraction (greater than 0 and less than 1)
+     * @return the builder
+     */
+    Builder withRefreshAhead(Double lifetimeFraction);
+
+    /**
+     * With the maximum size of the internal in memory cache. It is ignored, if an external cache is
+     * set.
+     *
+     * @param maximumSize the maximum size (can be {@code null}, then the default size is used)
+     * @return the builder
+     */
+    Builder withInternalCacheMaximumSize(Integer maximumSize);
+
     /**
      * Build access token cache.
      *
@@ -174,6 +227,10 @@ public interface AccessTokenCache {
 
       private String keyPrefix;
 
+      private Double refreshAheadLifetimeFraction;
+
+      private Integer internalCacheMaximumSize;
+
       @Override
       public Builder withExternalCache(Cache externalCache) {
         this.externalCache = externalCache;
@@ -192,9 +249,27 @@ public interface AccessTokenCache {
         return this;
       }
 
+      @Override
+      public Builder withRefreshAhead(Double lifetimeFraction) {
+        this.refreshAheadLifetimeFraction = lifetimeFraction;
+        return this;
+      }
+
+      @Override
+      public Builder withInternalCacheMaximumSize(Integer maximumSize) {
+        this.internalCacheMaximumSize = maximumSize;
+        return this;
+      }
+
       @Override
       public AccessTokenCache build() {
-        return new AccessTokenCacheImpl(externalCache, expirationTimeThreshold, keyPrefix);
+        return new AccessTokenCacheImpl(
+            externalCache != null
+                ? externalCache
+                : new InMemoryAccessTokenCache(internalCacheMaximumSize, null),
+            expirationTimeThreshold,
+            keyPrefix,
+            refreshAheadLifetimeFraction);
       }
     }
   }
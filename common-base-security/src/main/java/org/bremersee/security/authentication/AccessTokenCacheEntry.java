@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Objects;
+import javax.validation.constraints.NotNull;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The access token cache entry holds the access token together with its pre-computed expiration
+ * time, so that a cache lookup doesn't need to parse the token again.
+ *
+ * @author Christian Bremer
+ */
+@Getter
+@ToString(exclude = {"accessToken"})
+@EqualsAndHashCode
+public class AccessTokenCacheEntry implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The access token.
+   */
+  private final String accessToken;
+
+  /**
+   * The expiration time in milliseconds since epoch or {@code 0}, if the access token has no
+   * expiration claim.
+   */
+  private final long expirationTimeMillis;
+
+  /**
+   * Instantiates a new access token cache entry.
+   *
+   * @param accessToken the access token
+   * @param expirationTime the expiration time (can be {@code null})
+   */
+  public AccessTokenCacheEntry(@NotNull String accessToken, Date expirationTime) {
+    this.accessToken = Objects.requireNonNull(accessToken, "Access token must not be null.");
+    this.expirationTimeMillis = expirationTime != null ? expirationTime.getTime() : 0L;
+  }
+
+  /**
+   * Checks whether the access token is expired. If no expiration claim is present, the result will
+   * always be {@code true}.
+   *
+   * @param accessTokenThreshold the access token threshold
+   * @return the boolean
+   */
+  public boolean isExpired(Duration accessTokenThreshold) {
+    Duration duration = Objects
+        .requireNonNullElseGet(accessTokenThreshold, () -> Duration.ofSeconds(20L));
+    return expirationTimeMillis < System.currentTimeMillis() + duration.toMillis();
+  }
+
+  /**
+   * Creates a new cache entry from the given access token. The access token is parsed only once
+   * here. If it cannot be parsed, the entry has no expiration time.
+   *
+   * @param accessToken the access token
+   * @return the access token cache entry
+   */
+  public static AccessTokenCacheEntry of(@NotNull String accessToken) {
+    Date expirationTime;
+    try {
+      expirationTime = AccessTokenCache.getExpirationTime(accessToken);
+    } catch (RuntimeException e) {
+      expirationTime = null;
+    }
+    return new AccessTokenCacheEntry(accessToken, expirationTime);
+  }
+
+  /**
+   * Gets a cache entry from a cached value. The value may be a cache entry of the internal in
+   * memory cache or a plain access token of an external cache.
+   *
+   * @param value the cached value
+   * @return the access token cache entry or {@code null}, if the value is not supported
+   */
+  public static AccessTokenCacheEntry from(Object value) {
+    if (value instanceof AccessTokenCacheEntry) {
+      return (AccessTokenCacheEntry) value;
+    }
+    if (value instanceof String) {
+      return of((String) value);
+    }
+    return null;
+  }
+
+}
@@ -19,37 +19,40 @@ package org.bremersee.security.authentication;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.function.BiFunction;
-import javax.validation.constraints.NotNull;
+import java.util.function.Supplier;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.cache.Cache;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.util.StringUtils;
 
 /**
  * The access token cache implementation.
  *
+ * <p>An external cache gets the plain access token as value, so that it stays readable by older
+ * versions and by serializers, that only know strings. Only the internal in memory cache stores
+ * an {@link AccessTokenCacheEntry} with the pre-computed expiration time.
+ *
  * @author Christian Bremer
  */
 @Slf4j
 public class AccessTokenCacheImpl implements AccessTokenCache, DisposableBean {
 
-  private Timer internalCacheTimer;
-
   private final Cache cache;
 
   private final Duration expirationTimeThreshold;
 
   private final String keyPrefix;
 
+  private final AccessTokenRefreshScheduler refreshScheduler;
+
+  /**
+   * An optional function that checks whether a cached access token is expired. If it is not set,
+   * the expiration time, that was calculated when the token was put into the cache, is used.
+   */
   @Setter
-  @NotNull
-  private BiFunction<String, Duration, Boolean> expiredBiFn = AccessTokenCache::isExpired;
+  private BiFunction<String, Duration, Boolean> expiredBiFn;
 
   /**
    * Instantiates a new access token cache.
@@ -90,33 +93,51 @@ public class AccessTokenCacheImpl implements AccessTokenCache, DisposableBean {
       Cache cache,
       Duration expirationTimeThreshold,
       String keyPrefix) {
-    if (cache != null) {
+    this(cache, expirationTimeThreshold, keyPrefix, null);
+  }
+
+  /**
+   * Instantiates a new access token cache.
+   *
+   * @param cache the cache
+   * @param expirationTimeThreshold the expiration time threshold
+   * @param keyPrefix the key prefix
+   * @param refreshAheadLifetimeFraction the fraction of the token lifetime after which used tokens
+   *     are renewed in the background (can be {@code null}, then refresh ahead is disabled)
+   */
+  public AccessTokenCacheImpl(
+      Cache cache,
+      Duration expirationTimeThreshold,
+      String keyPrefix,
+      Double refreshAheadLifetimeFraction) {
+    if (cache instanceof InMemoryAccessTokenCache) {
+      log.info("Creating access token cache with internal in memory cache {}.", cache);
+      this.cache = cache;
+    } else if (cache != null) {
       log.info("Creating access token cache with given cache.");
       this.cache = cache;
     } else {
       log.info("Creating access token cache with internal in memory cache.");
-      this.cache = createInternalCache();
+      this.cache = new InMemoryAccessTokenCache();
     }
     this.expirationTimeThreshold = Objects
         .requireNonNullElseGet(expirationTimeThreshold, () -> Duration.ofSeconds(20L));
     this.keyPrefix = keyPrefix;
+    this.refreshScheduler = refreshAheadLifetimeFraction != null
+        ? new AccessTokenRefreshScheduler(
+        refreshAheadLifetimeFraction,
+        this.expirationTimeThreshold)
+        : null;
   }
 
-  private ConcurrentMapCache createInternalCache() {
-    final long period = 1000L * 60L * 30L;
-    ConcurrentMapCache internalCache = new ConcurrentMapCache(CACHE_NAME);
-    internalCacheTimer = new Timer();
-    internalCacheTimer.schedule(new TimerTask() {
-      @Override
-      public void run() {
-        Set<Object> keys = internalCache.getNativeCache().keySet();
-        log.trace("Removing obsolete jwt entries from internal cache (sze = {}).", keys.size());
-        keys.forEach(key -> findAccessToken(String.valueOf(key))
-            .filter(token -> expiredBiFn.apply(token, expirationTimeThreshold))
-            .ifPresent(token -> internalCache.evict(key)));
-      }
-    }, period, period);
-    return internalCache;
+  /**
+   * Determines whether this cache uses an external cache, which may block, or the internal in
+   * memory cache.
+   *
+   * @return {@code true} if an external cache is used, otherwise {@code false}
+   */
+  public boolean hasExternalCache() {
+    return !(cache instanceof InMemoryAccessTokenCache);
   }
 
   private String addKeyPrefix(String givenKey) {
@@ -126,11 +147,25 @@ public class AccessTokenCacheImpl implements AccessTokenCache, DisposableBean {
     return givenKey;
   }
 
+  private boolean isExpired(AccessTokenCacheEntry entry) {
+    if (expiredBiFn != null) {
+      return expiredBiFn.apply(entry.getAccessToken(), expirationTimeThreshold);
+    }
+    return entry.isExpired(expirationTimeThreshold);
+  }
+
   @Override
   public Optional<String> findAccessToken(String key) {
     try {
-      return Optional.ofNullable(cache.get(addKeyPrefix(key), String.class))
-          .filter(token -> !expiredBiFn.apply(token, expirationTimeThreshold));
+      return Optional.ofNullable(cache.get(addKeyPrefix(key), Object.class))
+          .map(AccessTokenCacheEntry::from)
+          .filter(entry -> !isExpired(entry))
+          .map(entry -> {
+            if (refreshScheduler != null) {
+              refreshScheduler.accessed(key);
+            }
+            return entry.getAccessToken();
+          });
 
     } catch (RuntimeException e) {
       log.error("Getting access token from cache failed.", e);
@@ -141,26 +176,38 @@ public class AccessTokenCacheImpl implements AccessTokenCache, DisposableBean {
   @Override
   public void putAccessToken(String key, String accessToken) {
     try {
-      cache.put(addKeyPrefix(key), accessToken);
+      cache.put(
+          addKeyPrefix(key),
+          hasExternalCache() ? accessToken : AccessTokenCacheEntry.of(accessToken));
 
     } catch (RuntimeException e) {
       log.error("Putting access token into the cache failed.", e);
     }
   }
 
+  @Override
+  public void putAccessToken(String key, String accessToken, Supplier<String> refreshFn) {
+    putAccessToken(key, accessToken);
+    if (refreshScheduler != null && refreshFn != null) {
+      refreshScheduler.schedule(key, accessToken,
+          () -> putAccessToken(key, refreshFn.get(), refreshFn));
+    }
+  }
+
   @Override
   public void destroy() {
-    if (internalCacheTimer != null) {
-      internalCacheTimer.cancel();
+    if (refreshScheduler != null) {
+      refreshScheduler.destroy();
     }
   }
 
   @Override
   public String toString() {
     return "AccessTokenCacheImpl {cache = "
-        + (internalCacheTimer != null ? "INTERNAL" : "EXTERNAL")
+        + (hasExternalCache() ? "EXTERNAL" : "INTERNAL")
         + ", keyPrefix = " + keyPrefix
         + ", expirationTimeThreshold (in secs) = " + expirationTimeThreshold.toSeconds()
+        + ", refreshAhead = " + (refreshScheduler != null)
         + '}';
   }
 }
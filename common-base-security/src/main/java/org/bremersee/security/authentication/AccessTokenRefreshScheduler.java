@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+/**
+ * The access token refresh scheduler renews cached access tokens in the background, after a
+ * fraction of their lifetime has passed. Only tokens, that were read from the cache since they were
+ * put into it, are renewed, so that tokens of keys that are no longer used just expire.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public class AccessTokenRefreshScheduler implements DisposableBean {
+
+  private final ConcurrentMap<String, RefreshTask> tasks = new ConcurrentHashMap<>();
+
+  private final ScheduledExecutorService executor;
+
+  private final double lifetimeFraction;
+
+  private final Duration expirationTimeThreshold;
+
+  /**
+   * Instantiates a new access token refresh scheduler.
+   *
+   * @param lifetimeFraction the fraction of the token lifetime after which the token will be
+   *     renewed (must be greater than 0 and less than 1)
+   * @param expirationTimeThreshold the expiration time threshold of the cache
+   */
+  public AccessTokenRefreshScheduler(double lifetimeFraction, Duration expirationTimeThreshold) {
+    Assert.isTrue(lifetimeFraction > 0 && lifetimeFraction < 1,
+        "Lifetime fraction must be greater than 0 and less than 1.");
+    this.lifetimeFraction = lifetimeFraction;
+    this.expirationTimeThreshold = Objects
+        .requireNonNullElseGet(expirationTimeThreshold, () -> Duration.ofSeconds(20L));
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "access-token-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Marks the access token of the given key as used.
+   *
+   * @param key the key
+   */
+  public void accessed(@NotNull String key) {
+    RefreshTask task = tasks.get(key);
+    if (task != null) {
+      task.accessed = true;
+    }
+  }
+
+  /**
+   * Schedules the renewal of the given access token.
+   *
+   * @param key the key
+   * @param accessToken the access token
+   * @param refreshFn the function that renews the access token
+   */
+  public void schedule(@NotNull String key, @NotNull String accessToken, Runnable refreshFn) {
+    if (refreshFn == null || executor.isShutdown()) {
+      return;
+    }
+    long delay = calculateDelay(accessToken, System.currentTimeMillis());
+    if (delay < 0) {
+      return;
+    }
+    RefreshTask task = new RefreshTask(key, refreshFn);
+    RefreshTask oldTask = tasks.put(key, task);
+    if (oldTask != null && oldTask.future != null) {
+      oldTask.future.cancel(false);
+    }
+    task.future = executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+    log.trace("Renewal of access token with key {} scheduled in {} ms.", key, delay);
+  }
+
+  /**
+   * Calculates the delay in milliseconds after which the access token should be renewed.
+   *
+   * @param accessToken the access token
+   * @param now the current time in milliseconds
+   * @return the delay or {@code -1}, if the token cannot be renewed before it expires
+   */
+  long calculateDelay(String accessToken, long now) {
+    JWTClaimsSet claims;
+    try {
+      claims = AccessTokenCache.parse(accessToken).getJWTClaimsSet();
+    } catch (ParseException | RuntimeException e) {
+      return -1L;
+    }
+    if (claims == null || claims.getExpirationTime() == null) {
+      return -1L;
+    }
+    long expiresAt = claims.getExpirationTime().getTime();
+    long latest = expiresAt - expirationTimeThreshold.toMillis();
+    if (latest <= now) {
+      return -1L;
+    }
+    long issuedAt = claims.getIssueTime() != null
+        ? Math.min(claims.getIssueTime().getTime(), now)
+        : now;
+    long refreshAt = issuedAt + (long) ((expiresAt - issuedAt) * lifetimeFraction);
+    refreshAt = Math.min(refreshAt, latest);
+    return Math.max(0L, refreshAt - now);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+    tasks.clear();
+  }
+
+  private class RefreshTask implements Runnable {
+
+    private final String key;
+
+    private final Runnable refreshFn;
+
+    private volatile boolean accessed;
+
+    private volatile ScheduledFuture<?> future;
+
+    private RefreshTask(String key, Runnable refreshFn) {
+      this.key = key;
+      this.refreshFn = refreshFn;
+    }
+
+    @Override
+    public void run() {
+      if (!tasks.remove(key, this)) {
+        return;
+      }
+      if (!accessed) {
+        log.trace("Access token with key {} was not used, it will not be renewed.", key);
+        return;
+      }
+      try {
+        log.trace("Renewing access token with key {} ...", key);
+        refreshFn.run();
+
+      } catch (RuntimeException e) {
+        log.error("Renewing access token failed.", e);
+      }
+    }
+  }
+
+}
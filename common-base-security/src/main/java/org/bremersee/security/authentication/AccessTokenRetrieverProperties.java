@@ -16,12 +16,7 @@
 
 package org.bremersee.security.authentication;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.Optional;
-import org.bremersee.exception.ServiceException;
 import org.springframework.util.MultiValueMap;
 
 /**
@@ -55,23 +50,12 @@ public interface AccessTokenRetrieverProperties {
   String createCacheKey();
 
   /**
-   * Create an hashed cache key.
+   * Create an hashed cache key. Immutable implementations may return a memoized value.
    *
    * @return the hashed cache key
    */
   default String createCacheKeyHashed() {
-    final String cacheKey = createCacheKey();
-    return Optional.ofNullable(cacheKey)
-        .map(key -> {
-          try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = md.digest(key.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(hashBytes);
-          } catch (NoSuchAlgorithmException e) {
-            throw ServiceException.internalServerError("Creating hash failed.", e);
-          }
-        })
-        .orElse(cacheKey);
+    return CacheKeyHasher.hash(createCacheKey());
   }
 
   /**
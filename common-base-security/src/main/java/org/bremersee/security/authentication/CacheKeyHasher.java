@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import org.bremersee.exception.ServiceException;
+
+/**
+ * Creates hashed cache keys with a SHA-256 message digest, that is reused per thread.
+ *
+ * @author Christian Bremer
+ */
+final class CacheKeyHasher {
+
+  private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal
+      .withInitial(CacheKeyHasher::createDigest);
+
+  private CacheKeyHasher() {
+  }
+
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw ServiceException.internalServerError("Creating hash failed.", e);
+    }
+  }
+
+  /**
+   * Hashes the given cache key.
+   *
+   * @param cacheKey the cache key (can be {@code null})
+   * @return the base64 encoded SHA-256 hash of the cache key or {@code null}
+   */
+  static String hash(String cacheKey) {
+    if (cacheKey == null) {
+      return null;
+    }
+    MessageDigest md = DIGEST.get();
+    md.reset();
+    byte[] hashBytes = md.digest(cacheKey.getBytes(StandardCharsets.UTF_8));
+    return Base64.getEncoder().encodeToString(hashBytes);
+  }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.time.Instant;
+import lombok.ToString;
+import org.bremersee.security.core.ExpiringCache;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.util.Assert;
+
+/**
+ * A jwt decoder, that keeps successfully decoded and verified tokens in a bounded cache until they
+ * expire. So the signature of a token, that is used again, must not be verified again. Tokens
+ * without expiration time are not cached.
+ *
+ * @author Christian Bremer
+ */
+@ToString(of = {"delegate", "cache"})
+public class CachingJwtDecoder implements JwtDecoder {
+
+  private final JwtDecoder delegate;
+
+  private final ExpiringCache<String, Jwt> cache;
+
+  /**
+   * Instantiates a new caching jwt decoder.
+   *
+   * @param delegate the jwt decoder, that verifies the tokens
+   * @param maximumSize the maximum number of cached tokens
+   */
+  public CachingJwtDecoder(JwtDecoder delegate, int maximumSize) {
+    Assert.notNull(delegate, "Jwt decoder must be present.");
+    this.delegate = delegate;
+    this.cache = new ExpiringCache<>(maximumSize);
+  }
+
+  /**
+   * Gets the cache.
+   *
+   * @return the cache
+   */
+  public ExpiringCache<String, Jwt> getCache() {
+    return cache;
+  }
+
+  @Override
+  public Jwt decode(String token) throws JwtException {
+    Jwt jwt = cache.get(token);
+    if (jwt == null) {
+      jwt = delegate.decode(token);
+      Instant expiresAt = jwt.getExpiresAt();
+      if (expiresAt != null) {
+        cache.put(jwt.getTokenValue(), jwt, expiresAt.toEpochMilli());
+      }
+    }
+    return jwt;
+  }
+
+}
@@ -19,7 +19,6 @@ package org.bremersee.security.authentication;
 import java.util.Arrays;
 import java.util.Optional;
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -183,9 +182,8 @@ public interface ClientCredentialsFlowProperties extends AccessTokenRetrieverPro
     }
 
     @Getter
-    @AllArgsConstructor(access = AccessLevel.PRIVATE)
-    @ToString(exclude = {"clientSecret"})
-    @EqualsAndHashCode
+    @ToString(exclude = {"clientSecret", "cacheKeyHashed"})
+    @EqualsAndHashCode(exclude = {"cacheKeyHashed"})
     private static class Impl implements ClientCredentialsFlowProperties {
 
       private final String tokenEndpoint;
@@ -195,6 +193,30 @@ public interface ClientCredentialsFlowProperties extends AccessTokenRetrieverPro
       private final String clientSecret;
 
       private final MultiValueMap<String, String> additionalProperties;
+
+      @Getter(AccessLevel.NONE)
+      private volatile String cacheKeyHashed;
+
+      private Impl(
+          String tokenEndpoint,
+          String clientId,
+          String clientSecret,
+          MultiValueMap<String, String> additionalProperties) {
+        this.tokenEndpoint = tokenEndpoint;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.additionalProperties = additionalProperties;
+      }
+
+      @Override
+      public String createCacheKeyHashed() {
+        String hashed = cacheKeyHashed;
+        if (hashed == null) {
+          hashed = ClientCredentialsFlowProperties.super.createCacheKeyHashed();
+          cacheKeyHashed = hashed;
+        }
+        return hashed;
+      }
     }
   }
 
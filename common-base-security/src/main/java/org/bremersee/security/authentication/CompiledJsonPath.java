@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import com.jayway.jsonpath.JsonPath;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+/**
+ * A json path, that is compiled once. Simple paths like {@code $.realm_access.roles} are evaluated
+ * by walking through the claims map directly, all other paths are evaluated with a compiled {@link
+ * JsonPath}.
+ *
+ * @author Christian Bremer
+ */
+@ToString(of = "path")
+@EqualsAndHashCode(of = "path")
+class CompiledJsonPath {
+
+  private static final Pattern SIMPLE_PATH = Pattern
+      .compile("^\\$(\\.[A-Za-z_][A-Za-z0-9_\\-]*)+$");
+
+  @Getter
+  private final String path;
+
+  private final String[] segments;
+
+  private final JsonPath jsonPath;
+
+  private CompiledJsonPath(String path) {
+    Assert.hasText(path, "Json path must be present.");
+    this.path = path;
+    if (SIMPLE_PATH.matcher(path).matches()) {
+      this.segments = path.substring(2).split("\\.");
+      this.jsonPath = null;
+    } else {
+      this.segments = null;
+      this.jsonPath = JsonPath.compile(path);
+    }
+  }
+
+  /**
+   * Compiles the given json path.
+   *
+   * @param path the json path
+   * @return the compiled json path
+   */
+  static CompiledJsonPath compile(String path) {
+    return new CompiledJsonPath(path);
+  }
+
+  /**
+   * Determines whether this path is a simple path, that is evaluated without json path.
+   *
+   * @return the boolean
+   */
+  boolean isSimple() {
+    return segments != null;
+  }
+
+  /**
+   * Gets the compiled json path.
+   *
+   * @return the compiled json path or {@code null}, if this path is a simple path
+   */
+  JsonPath getJsonPath() {
+    return jsonPath;
+  }
+
+  /**
+   * Reads the value of a simple path from the given claims.
+   *
+   * @param <T> the type of the result
+   * @param claims the claims
+   * @param resultClass the result class
+   * @return the value or {@code null}, if there is no such value of the required type
+   */
+  <T> T readSimple(Map<String, Object> claims, Class<T> resultClass) {
+    Object value = claims;
+    for (String segment : segments) {
+      if (!(value instanceof Map)) {
+        return null;
+      }
+      value = ((Map<?, ?>) value).get(segment);
+    }
+    return convert(value, resultClass);
+  }
+
+  private static <T> T convert(Object value, Class<T> resultClass) {
+    if (value == null) {
+      return null;
+    }
+    if (resultClass.isInstance(value)) {
+      return resultClass.cast(value);
+    }
+    if (resultClass == List.class && value instanceof Collection) {
+      return resultClass.cast(new ArrayList<>((Collection<?>) value));
+    }
+    if (resultClass == String.class
+        && (value instanceof Number || value instanceof Boolean || value instanceof Character)) {
+      return resultClass.cast(String.valueOf(value));
+    }
+    return null;
+  }
+
+}
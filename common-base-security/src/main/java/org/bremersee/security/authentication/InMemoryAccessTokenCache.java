@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import lombok.ToString;
+import org.bremersee.security.core.ExpiringCache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * The bounded in memory cache of the {@link AccessTokenCacheImpl}. Every entry expires with the
+ * expiration time of its access token; access tokens without expiration claim expire after the
+ * default time to live. If the cache is full, the entries, that expire first, are evicted.
+ *
+ * @author Christian Bremer
+ */
+@ToString(of = {"nativeCache", "defaultTimeToLive"})
+public class InMemoryAccessTokenCache extends AbstractValueAdaptingCache {
+
+  /**
+   * The default maximum size.
+   */
+  public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+  private final ExpiringCache<Object, Object> nativeCache;
+
+  private final Duration defaultTimeToLive;
+
+  /**
+   * Instantiates a new in memory access token cache with the default maximum size.
+   */
+  public InMemoryAccessTokenCache() {
+    this(null, null);
+  }
+
+  /**
+   * Instantiates a new in memory access token cache.
+   *
+   * @param maximumSize the maximum size (can be {@code null})
+   * @param defaultTimeToLive the time to live of access tokens without expiration claim (can be
+   *     {@code null})
+   */
+  public InMemoryAccessTokenCache(Integer maximumSize, Duration defaultTimeToLive) {
+    super(false);
+    this.nativeCache = new ExpiringCache<>(
+        Objects.requireNonNullElse(maximumSize, DEFAULT_MAXIMUM_SIZE));
+    this.defaultTimeToLive = Objects
+        .requireNonNullElseGet(defaultTimeToLive, () -> Duration.ofMinutes(30L));
+  }
+
+  /**
+   * Gets the number of successful lookups.
+   *
+   * @return the hit count
+   */
+  public long getHitCount() {
+    return nativeCache.getHitCount();
+  }
+
+  /**
+   * Gets the number of lookups, that found no access token or an expired one.
+   *
+   * @return the miss count
+   */
+  public long getMissCount() {
+    return nativeCache.getMissCount();
+  }
+
+  /**
+   * Gets the number of access tokens, that were removed because they expired or because the cache
+   * was full.
+   *
+   * @return the eviction count
+   */
+  public long getEvictionCount() {
+    return nativeCache.getEvictionCount();
+  }
+
+  /**
+   * Gets the number of cached access tokens.
+   *
+   * @return the size
+   */
+  public int size() {
+    return nativeCache.size();
+  }
+
+  @Override
+  public String getName() {
+    return AccessTokenCache.CACHE_NAME;
+  }
+
+  @Override
+  public ExpiringCache<Object, Object> getNativeCache() {
+    return nativeCache;
+  }
+
+  @Override
+  protected Object lookup(Object key) {
+    return nativeCache.get(key);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    Object storeValue = lookup(key);
+    if (storeValue != null) {
+      return (T) fromStoreValue(storeValue);
+    }
+    T value;
+    try {
+      value = valueLoader.call();
+    } catch (Exception e) {
+      throw new ValueRetrievalException(key, valueLoader, e);
+    }
+    put(key, value);
+    return value;
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    AccessTokenCacheEntry entry = AccessTokenCacheEntry.from(value);
+    long expiresAt = entry != null && entry.getExpirationTimeMillis() > 0L
+        ? entry.getExpirationTimeMillis()
+        : System.currentTimeMillis() + defaultTimeToLive.toMillis();
+    nativeCache.put(key, toStoreValue(value), expiresAt);
+  }
+
+  @Override
+  public void evict(Object key) {
+    nativeCache.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    nativeCache.clear();
+  }
+
+}
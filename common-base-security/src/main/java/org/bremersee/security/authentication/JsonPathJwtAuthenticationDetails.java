@@ -16,28 +16,49 @@
 
 package org.bremersee.security.authentication;
 
+import java.time.Duration;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.TimeZone;
+import java.util.function.Function;
 import org.bremersee.common.model.JavaLocale;
+import org.bremersee.security.core.ExpiringCache;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.util.StringUtils;
 
 /**
  * The json path jwt authentication details.
  *
+ * <p>If a cache size greater than 0 is given, the preferred language and the preferred time zone
+ * of a token are read together once and kept until the token expires. The lookups of locales and
+ * time zones by their values are always cached in small bounded caches of this instance. Every
+ * caller gets its own copy of a time zone, because time zones are mutable.
+ *
  * @author Christian Bremer
  */
 public class JsonPathJwtAuthenticationDetails implements AuthenticationDetails {
 
+  private static final int MAXIMUM_LOOKUP_CACHE_SIZE = 100;
+
+  private static final long LOOKUP_TIME_TO_LIVE_MILLIS = Duration.ofHours(1L).toMillis();
+
+  private final ExpiringCache<String, Optional<Locale>> localeCache
+      = new ExpiringCache<>(MAXIMUM_LOOKUP_CACHE_SIZE);
+
+  private final ExpiringCache<String, Optional<TimeZone>> timeZoneCache
+      = new ExpiringCache<>(MAXIMUM_LOOKUP_CACHE_SIZE);
+
   private final Locale defaultLocale;
 
   private final TimeZone defaultTimeZone;
 
-  private final String preferredLanguageJsonPath;
+  private final CompiledJsonPath preferredLanguageJsonPath;
+
+  private final CompiledJsonPath preferredTimeZoneJsonPath;
 
-  private final String preferredTimeZoneJsonPath;
+  private final ExpiringCache<String, PreferredSettings> cache;
 
   /**
    * Instantiates a new json path jwt authentication details.
@@ -52,10 +73,34 @@ public class JsonPathJwtAuthenticationDetails implements AuthenticationDetails {
       TimeZone defaultTimeZone,
       String preferredLanguageJsonPath,
       String preferredTimeZoneJsonPath) {
+    this(defaultLocale, defaultTimeZone, preferredLanguageJsonPath, preferredTimeZoneJsonPath, 0);
+  }
+
+  /**
+   * Instantiates a new json path jwt authentication details.
+   *
+   * @param defaultLocale the default locale
+   * @param defaultTimeZone the default time zone
+   * @param preferredLanguageJsonPath the preferred language json path
+   * @param preferredTimeZoneJsonPath the preferred time zone json path
+   * @param cacheSize the maximum number of tokens, whose preferred settings are cached until
+   *     they expire; a value less than 1 disables the cache
+   */
+  public JsonPathJwtAuthenticationDetails(
+      Locale defaultLocale,
+      TimeZone defaultTimeZone,
+      String preferredLanguageJsonPath,
+      String preferredTimeZoneJsonPath,
+      int cacheSize) {
     this.defaultLocale = defaultLocale != null ? defaultLocale : Locale.getDefault();
     this.defaultTimeZone = defaultTimeZone != null ? defaultTimeZone : TimeZone.getDefault();
-    this.preferredLanguageJsonPath = preferredLanguageJsonPath;
-    this.preferredTimeZoneJsonPath = preferredTimeZoneJsonPath;
+    this.preferredLanguageJsonPath = StringUtils.hasText(preferredLanguageJsonPath)
+        ? CompiledJsonPath.compile(preferredLanguageJsonPath)
+        : null;
+    this.preferredTimeZoneJsonPath = StringUtils.hasText(preferredTimeZoneJsonPath)
+        ? CompiledJsonPath.compile(preferredTimeZoneJsonPath)
+        : null;
+    this.cache = cacheSize > 0 ? new ExpiringCache<>(cacheSize) : null;
   }
 
   @Override
@@ -70,27 +115,94 @@ public class JsonPathJwtAuthenticationDetails implements AuthenticationDetails {
 
   @Override
   public Optional<Locale> getPreferredLanguage(Authentication authentication) {
-    return Optional.ofNullable(authentication)
-        .filter(auth -> StringUtils.hasText(preferredLanguageJsonPath)
-            && auth instanceof JwtAuthenticationToken)
-        .map(auth -> ((JwtAuthenticationToken) auth).getToken())
-        .map(JsonPathJwtParser::new)
-        .map(parser -> parser.read(preferredLanguageJsonPath, String.class))
-        .map(language -> JavaLocale.fromValue(language).toLocale());
+    if (preferredLanguageJsonPath == null) {
+      return Optional.empty();
+    }
+    return findJwt(authentication)
+        .flatMap(jwt -> cache != null
+            ? getPreferredSettings(jwt).language
+            : findLocale(new JsonPathJwtParser(jwt)));
   }
 
   @Override
   public Optional<TimeZone> getPreferredTimeZone(Authentication authentication) {
-    if (!StringUtils.hasText(preferredTimeZoneJsonPath)) {
+    if (preferredTimeZoneJsonPath == null) {
       return Optional.empty();
     }
+    return findJwt(authentication)
+        .flatMap(jwt -> cache != null
+            ? getPreferredSettings(jwt).timeZone
+            : findTimeZone(new JsonPathJwtParser(jwt)))
+        .map(timeZone -> (TimeZone) timeZone.clone());
+  }
+
+  private static Optional<Jwt> findJwt(Authentication authentication) {
     return Optional.ofNullable(authentication)
-        .filter(auth -> StringUtils.hasText(preferredTimeZoneJsonPath)
-            && auth instanceof JwtAuthenticationToken)
-        .map(auth -> ((JwtAuthenticationToken) auth).getToken())
-        .map(JsonPathJwtParser::new)
-        .map(parser -> parser.read(preferredTimeZoneJsonPath, String.class))
-        .map(TimeZone::getTimeZone);
+        .filter(auth -> auth instanceof JwtAuthenticationToken)
+        .map(auth -> ((JwtAuthenticationToken) auth).getToken());
+  }
+
+  private PreferredSettings getPreferredSettings(Jwt jwt) {
+    if (jwt.getTokenValue() == null || jwt.getExpiresAt() == null) {
+      return readPreferredSettings(jwt);
+    }
+    PreferredSettings preferredSettings = cache.get(jwt.getTokenValue());
+    if (preferredSettings == null) {
+      preferredSettings = readPreferredSettings(jwt);
+      cache.put(jwt.getTokenValue(), preferredSettings, jwt.getExpiresAt().toEpochMilli());
+    }
+    return preferredSettings;
+  }
+
+  private PreferredSettings readPreferredSettings(Jwt jwt) {
+    JsonPathJwtParser parser = new JsonPathJwtParser(jwt);
+    return new PreferredSettings(findLocale(parser), findTimeZone(parser));
+  }
+
+  private Optional<Locale> findLocale(JsonPathJwtParser parser) {
+    if (preferredLanguageJsonPath == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(parser.read(preferredLanguageJsonPath, String.class))
+        .flatMap(language -> lookup(localeCache, language,
+            value -> Optional.ofNullable(JavaLocale.fromValue(value).toLocale())));
+  }
+
+  private Optional<TimeZone> findTimeZone(JsonPathJwtParser parser) {
+    if (preferredTimeZoneJsonPath == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(parser.read(preferredTimeZoneJsonPath, String.class))
+        .flatMap(timeZone -> lookup(timeZoneCache, timeZone,
+            value -> Optional.of(TimeZone.getTimeZone(value))));
+  }
+
+  private static <T> Optional<T> lookup(
+      ExpiringCache<String, Optional<T>> lookupCache,
+      String value,
+      Function<String, Optional<T>> lookupFn) {
+    Optional<T> result = lookupCache.get(value);
+    if (result == null) {
+      result = lookupFn.apply(value);
+      lookupCache.put(value, result, System.currentTimeMillis() + LOOKUP_TIME_TO_LIVE_MILLIS);
+    }
+    return result;
+  }
+
+  /**
+   * The preferred settings of a token. The time zone is a shared instance, that must be cloned
+   * before it is handed out.
+   */
+  private static final class PreferredSettings {
+
+    private final Optional<Locale> language;
+
+    private final Optional<TimeZone> timeZone;
+
+    private PreferredSettings(Optional<Locale> language, Optional<TimeZone> timeZone) {
+      this.language = language;
+      this.timeZone = timeZone;
+    }
   }
 
 }
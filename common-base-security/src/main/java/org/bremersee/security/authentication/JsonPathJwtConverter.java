@@ -24,6 +24,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.bremersee.security.core.ExpiringCache;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.GrantedAuthority;
@@ -37,8 +38,12 @@ import org.springframework.util.StringUtils;
  *
  * @author Christian Bremer
  */
-@ToString(doNotUseGetters = true)
-@EqualsAndHashCode(doNotUseGetters = true)
+@ToString(
+    doNotUseGetters = true,
+    exclude = {"compiledRolesJsonPath", "compiledNameJsonPath", "cache"})
+@EqualsAndHashCode(
+    doNotUseGetters = true,
+    exclude = {"compiledRolesJsonPath", "compiledNameJsonPath", "cache"})
 public class JsonPathJwtConverter implements Converter<Jwt, JwtAuthenticationToken> {
 
   private String rolesJsonPath = "$.scope";
@@ -51,6 +56,12 @@ public class JsonPathJwtConverter implements Converter<Jwt, JwtAuthenticationTok
 
   private String nameJsonPath = "$.sub";
 
+  private CompiledJsonPath compiledRolesJsonPath = CompiledJsonPath.compile(rolesJsonPath);
+
+  private CompiledJsonPath compiledNameJsonPath = CompiledJsonPath.compile(nameJsonPath);
+
+  private ExpiringCache<String, JwtAuthenticationToken> cache;
+
   /**
    * Sets roles json path.
    *
@@ -59,6 +70,7 @@ public class JsonPathJwtConverter implements Converter<Jwt, JwtAuthenticationTok
   public void setRolesJsonPath(String rolesJsonPath) {
     if (StringUtils.hasText(rolesJsonPath)) {
       this.rolesJsonPath = rolesJsonPath;
+      this.compiledRolesJsonPath = CompiledJsonPath.compile(rolesJsonPath);
     }
   }
 
@@ -101,15 +113,46 @@ public class JsonPathJwtConverter implements Converter<Jwt, JwtAuthenticationTok
   public void setNameJsonPath(String nameJsonPath) {
     if (StringUtils.hasText(nameJsonPath)) {
       this.nameJsonPath = nameJsonPath;
+      this.compiledNameJsonPath = CompiledJsonPath.compile(nameJsonPath);
     }
   }
 
+  /**
+   * Sets the maximum size of the cache, that holds the converted authentication tokens until the
+   * jwt expires. A value less than 1 disables the cache (default).
+   *
+   * @param cacheSize the cache size
+   */
+  public void setCacheSize(int cacheSize) {
+    this.cache = cacheSize > 0 ? new ExpiringCache<>(cacheSize) : null;
+  }
+
   @Override
   public JwtAuthenticationToken convert(@NonNull final Jwt source) {
+    if (cache == null || source.getTokenValue() == null || source.getExpiresAt() == null) {
+      return doConvert(source);
+    }
+    final JwtAuthenticationToken cached = cache.get(source.getTokenValue());
+    if (cached != null) {
+      // The authentication token is mutable (e. g. the details), so a new instance is returned.
+      return new JwtAuthenticationToken(source, cached.getAuthorities(), cached.getName());
+    }
+    final JwtAuthenticationToken authenticationToken = doConvert(source);
+    cache.put(
+        source.getTokenValue(),
+        new JwtAuthenticationToken(
+            source,
+            authenticationToken.getAuthorities(),
+            authenticationToken.getName()),
+        source.getExpiresAt().toEpochMilli());
+    return authenticationToken;
+  }
+
+  private JwtAuthenticationToken doConvert(final Jwt source) {
     final JsonPathJwtParser parser = new JsonPathJwtParser(source);
     final List<String> roleValues;
     if (rolesValueList) {
-      final List<?> rawList = parser.read(rolesJsonPath, List.class);
+      final List<?> rawList = parser.read(compiledRolesJsonPath, List.class);
       roleValues = rawList == null
           ? Collections.emptyList()
           : rawList.stream()
@@ -117,7 +160,7 @@ public class JsonPathJwtConverter implements Converter<Jwt, JwtAuthenticationTok
               .map(Object::toString)
               .collect(Collectors.toList());
     } else {
-      final String roleValue = parser.read(rolesJsonPath, String.class);
+      final String roleValue = parser.read(compiledRolesJsonPath, String.class);
       if (StringUtils.hasText(roleValue)) {
         roleValues = Arrays.asList(roleValue.split(rolesValueSeparator));
       } else {
@@ -129,7 +172,7 @@ public class JsonPathJwtConverter implements Converter<Jwt, JwtAuthenticationTok
         .map(roleName -> roleName.startsWith(rolePrefix) ? roleName : rolePrefix + roleName)
         .map(SimpleGrantedAuthority::new)
         .collect(Collectors.toSet());
-    final String name = parser.read(nameJsonPath, String.class);
+    final String name = parser.read(compiledNameJsonPath, String.class);
     return new JwtAuthenticationToken(
         source,
         authorities,
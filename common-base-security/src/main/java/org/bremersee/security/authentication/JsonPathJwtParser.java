@@ -19,11 +19,13 @@ package org.bremersee.security.authentication;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
-import net.minidev.json.JSONValue;
+import java.util.Map;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 /**
- * The json path jwt parser.
+ * The json path jwt parser. The json paths are evaluated against the claims map of the jwt, the
+ * claims are not serialized into a json string. The json paths must be compiled by the callers, so
+ * that they are compiled only once and not for every token.
  *
  * @author Christian Bremer
  */
@@ -32,7 +34,9 @@ class JsonPathJwtParser {
   private static final com.jayway.jsonpath.Configuration jsonPathConf
       = com.jayway.jsonpath.Configuration.builder().options(Option.SUPPRESS_EXCEPTIONS).build();
 
-  private final DocumentContext documentContext;
+  private final Map<String, Object> claims;
+
+  private DocumentContext documentContext;
 
   /**
    * Instantiates a new json path jwt parser.
@@ -40,20 +44,28 @@ class JsonPathJwtParser {
    * @param jwt the jwt
    */
   JsonPathJwtParser(Jwt jwt) {
-    final String jsonStr = JSONValue.toJSONString(jwt.getClaims());
-    this.documentContext = JsonPath.parse(jsonStr, jsonPathConf);
+    this.claims = jwt.getClaims();
   }
 
   /**
-   * Read the value of the given json path.
+   * Read the value of the given compiled json path.
    *
    * @param <T>         the type of the result
-   * @param jsonPath    the json path
+   * @param jsonPath    the compiled json path
    * @param resultClass the result class
    * @return the value of the json path
    */
-  <T> T read(String jsonPath, Class<T> resultClass) {
-    return documentContext.read(jsonPath, resultClass);
+  <T> T read(CompiledJsonPath jsonPath, Class<T> resultClass) {
+    if (claims == null) {
+      return null;
+    }
+    if (jsonPath.isSimple()) {
+      return jsonPath.readSimple(claims, resultClass);
+    }
+    if (documentContext == null) {
+      documentContext = JsonPath.using(jsonPathConf).parse(claims);
+    }
+    return documentContext.read(jsonPath.getJsonPath(), resultClass);
   }
 
 }
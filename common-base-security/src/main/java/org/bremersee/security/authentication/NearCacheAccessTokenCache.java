@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.bremersee.security.core.ExpiringCache;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+/**
+ * A two level access token cache. A small in memory cache (the near cache) is used in front of
+ * another access token cache (for example a redis cache), so that an access token, that was read
+ * recently, doesn't need a network round trip. The entries of the near cache live at most for the
+ * given time to live and never longer than the access token is valid.
+ *
+ * @author Christian Bremer
+ */
+public class NearCacheAccessTokenCache implements AccessTokenCache, DisposableBean {
+
+  private final AccessTokenCache delegate;
+
+  private final ExpiringCache<String, String> nearCache;
+
+  private final Duration timeToLive;
+
+  private final Duration expirationTimeThreshold;
+
+  /**
+   * Instantiates a new near cache access token cache.
+   *
+   * @param delegate the access token cache behind the near cache
+   * @param maximumSize the maximum size of the near cache
+   * @param timeToLive the maximum time to live of the near cache entries
+   * @param expirationTimeThreshold the expiration time threshold (can be {@code null})
+   */
+  public NearCacheAccessTokenCache(
+      AccessTokenCache delegate,
+      int maximumSize,
+      Duration timeToLive,
+      Duration expirationTimeThreshold) {
+    Assert.notNull(delegate, "Access token cache must be present.");
+    Assert.notNull(timeToLive, "Time to live must be present.");
+    this.delegate = delegate;
+    this.nearCache = new ExpiringCache<>(maximumSize);
+    this.timeToLive = timeToLive;
+    this.expirationTimeThreshold = Objects
+        .requireNonNullElseGet(expirationTimeThreshold, () -> Duration.ofSeconds(20L));
+  }
+
+  /**
+   * Gets the near cache.
+   *
+   * @return the near cache
+   */
+  public ExpiringCache<String, String> getNearCache() {
+    return nearCache;
+  }
+
+  @Override
+  public Optional<String> findAccessToken(String key) {
+    String accessToken = nearCache.get(key);
+    if (accessToken != null) {
+      return Optional.of(accessToken);
+    }
+    Optional<String> result = delegate.findAccessToken(key);
+    result.ifPresent(token -> putIntoNearCache(key, token));
+    return result;
+  }
+
+  @Override
+  public Map<String, String> findAccessTokens(Collection<String> keys) {
+    Map<String, String> accessTokens = new LinkedHashMap<>();
+    List<String> missingKeys = new ArrayList<>();
+    for (String key : keys) {
+      String accessToken = nearCache.get(key);
+      if (accessToken != null) {
+        accessTokens.put(key, accessToken);
+      } else {
+        missingKeys.add(key);
+      }
+    }
+    if (!missingKeys.isEmpty()) {
+      delegate.findAccessTokens(missingKeys).forEach((key, accessToken) -> {
+        putIntoNearCache(key, accessToken);
+        accessTokens.put(key, accessToken);
+      });
+    }
+    return accessTokens;
+  }
+
+  @Override
+  public void putAccessToken(String key, String accessToken) {
+    delegate.putAccessToken(key, accessToken);
+    putIntoNearCache(key, accessToken);
+  }
+
+  @Override
+  public void putAccessToken(String key, String accessToken, Supplier<String> refreshFn) {
+    delegate.putAccessToken(key, accessToken, refreshFn != null
+        ? () -> {
+          String newAccessToken = refreshFn.get();
+          putIntoNearCache(key, newAccessToken);
+          return newAccessToken;
+        }
+        : null);
+    putIntoNearCache(key, accessToken);
+  }
+
+  private void putIntoNearCache(String key, String accessToken) {
+    if (accessToken == null) {
+      return;
+    }
+    long expirationTimeMillis = AccessTokenCacheEntry.of(accessToken).getExpirationTimeMillis();
+    if (expirationTimeMillis > 0L) {
+      nearCache.put(key, accessToken, Math.min(
+          System.currentTimeMillis() + timeToLive.toMillis(),
+          expirationTimeMillis - expirationTimeThreshold.toMillis()));
+    }
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    nearCache.clear();
+    if (delegate instanceof DisposableBean) {
+      ((DisposableBean) delegate).destroy();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "NearCacheAccessTokenCache {nearCache = " + nearCache
+        + ", timeToLive = " + timeToLive
+        + ", delegate = " + delegate
+        + '}';
+  }
+}
@@ -19,7 +19,6 @@ package org.bremersee.security.authentication;
 import java.util.Arrays;
 import java.util.Optional;
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -223,9 +222,8 @@ public interface PasswordFlowProperties extends ClientCredentialsFlowProperties
     }
 
     @Getter
-    @AllArgsConstructor(access = AccessLevel.PRIVATE)
-    @ToString(exclude = {"clientSecret", "password"})
-    @EqualsAndHashCode
+    @ToString(exclude = {"clientSecret", "password", "cacheKeyHashed"})
+    @EqualsAndHashCode(exclude = {"cacheKeyHashed"})
     private static class Impl implements PasswordFlowProperties {
 
       private final String tokenEndpoint;
@@ -239,6 +237,34 @@ public interface PasswordFlowProperties extends ClientCredentialsFlowProperties
       private final String password;
 
       private final MultiValueMap<String, String> additionalProperties;
+
+      @Getter(AccessLevel.NONE)
+      private volatile String cacheKeyHashed;
+
+      private Impl(
+          String tokenEndpoint,
+          String clientId,
+          String clientSecret,
+          String username,
+          String password,
+          MultiValueMap<String, String> additionalProperties) {
+        this.tokenEndpoint = tokenEndpoint;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.username = username;
+        this.password = password;
+        this.additionalProperties = additionalProperties;
+      }
+
+      @Override
+      public String createCacheKeyHashed() {
+        String hashed = cacheKeyHashed;
+        if (hashed == null) {
+          hashed = PasswordFlowProperties.super.createCacheKeyHashed();
+          cacheKeyHashed = hashed;
+        }
+        return hashed;
+      }
     }
   }
 
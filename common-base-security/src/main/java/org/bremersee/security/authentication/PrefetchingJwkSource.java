@@ -0,0 +1,276 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.util.Assert;
+import org.springframework.web.client.RestOperations;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * A jwk source, that loads the jwk set eagerly and refreshes it in the background. Requests are
+ * always served with the keys in memory, even while a refresh is running or after a refresh
+ * failed. Only if a token carries an unknown key id, a refresh is started, but at most once within
+ * the unknown key id refresh interval. Concurrent callers share the refresh, that is in flight, and
+ * wait for it at most the configured timeout.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public class PrefetchingJwkSource implements JWKSource<SecurityContext>, DisposableBean {
+
+  private final String jwkSetUri;
+
+  private final RestOperations restOperations;
+
+  private final Duration refreshInterval;
+
+  private final Duration unknownKeyIdRefreshInterval;
+
+  private final Duration timeout;
+
+  private final AtomicReference<JWKSet> jwkSet = new AtomicReference<>(new JWKSet());
+
+  private final AtomicLong lastUnknownKeyIdRefresh = new AtomicLong();
+
+  private final AtomicReference<CompletableFuture<Boolean>> inFlightRefresh
+      = new AtomicReference<>();
+
+  private volatile ScheduledExecutorService executor;
+
+  /**
+   * Instantiates a new prefetching jwk source.
+   *
+   * @param jwkSetUri the jwk set uri
+   * @param restOperations the rest operations (can be {@code null})
+   * @param refreshInterval the refresh interval (can be {@code null})
+   * @param unknownKeyIdRefreshInterval the minimum time between two refreshes, that are caused by
+   *     unknown key ids (can be {@code null})
+   */
+  public PrefetchingJwkSource(
+      String jwkSetUri,
+      RestOperations restOperations,
+      Duration refreshInterval,
+      Duration unknownKeyIdRefreshInterval) {
+    this(jwkSetUri, restOperations, refreshInterval, unknownKeyIdRefreshInterval, null);
+  }
+
+  /**
+   * Instantiates a new prefetching jwk source.
+   *
+   * @param jwkSetUri the jwk set uri
+   * @param restOperations the rest operations (can be {@code null}; the default rest template
+   *     uses the timeout as connect and read timeout)
+   * @param refreshInterval the refresh interval (can be {@code null})
+   * @param unknownKeyIdRefreshInterval the minimum time between two refreshes, that are caused by
+   *     unknown key ids (can be {@code null})
+   * @param timeout the maximum time, a caller waits for a refresh caused by an unknown key id
+   *     (can be {@code null})
+   */
+  public PrefetchingJwkSource(
+      String jwkSetUri,
+      RestOperations restOperations,
+      Duration refreshInterval,
+      Duration unknownKeyIdRefreshInterval,
+      Duration timeout) {
+    Assert.hasText(jwkSetUri, "Jwk set uri must be present.");
+    this.jwkSetUri = jwkSetUri;
+    this.refreshInterval = Objects
+        .requireNonNullElseGet(refreshInterval, () -> Duration.ofMinutes(5L));
+    this.unknownKeyIdRefreshInterval = Objects
+        .requireNonNullElseGet(unknownKeyIdRefreshInterval, () -> Duration.ofSeconds(30L));
+    this.timeout = Objects.requireNonNullElseGet(timeout, () -> Duration.ofSeconds(5L));
+    this.restOperations = restOperations != null
+        ? restOperations
+        : createRestTemplate(this.timeout);
+  }
+
+  private static RestTemplate createRestTemplate(Duration timeout) {
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout((int) timeout.toMillis());
+    requestFactory.setReadTimeout((int) timeout.toMillis());
+    return new RestTemplate(requestFactory);
+  }
+
+  /**
+   * Loads the jwk set and starts the background refresh.
+   */
+  public synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    if (!refresh()) {
+      log.warn("Jwk set could not be loaded at startup, retrying in background.");
+    }
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "jwk-set-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long period = refreshInterval.toMillis();
+    executor.scheduleWithFixedDelay(this::refresh, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Gets the current jwk set.
+   *
+   * @return the jwk set
+   */
+  public JWKSet getJwkSet() {
+    return jwkSet.get();
+  }
+
+  /**
+   * Loads the jwk set on the calling thread or, if a refresh is already in flight, waits for it.
+   * If loading fails, the current keys are kept.
+   *
+   * @return {@code true} if the jwk set was loaded, otherwise {@code false}
+   */
+  public boolean refresh() {
+    return startRefresh(Runnable::run).join();
+  }
+
+  /**
+   * Starts a refresh with the given executor, unless a refresh is already in flight. No lock is
+   * held while the jwk set is loaded.
+   *
+   * @param loader the executor, that loads the jwk set
+   * @return the refresh, that is in flight
+   */
+  private CompletableFuture<Boolean> startRefresh(Executor loader) {
+    CompletableFuture<Boolean> refresh = new CompletableFuture<>();
+    CompletableFuture<Boolean> current = inFlightRefresh.compareAndExchange(null, refresh);
+    if (current != null) {
+      return current;
+    }
+    refresh.whenComplete((loaded, throwable) -> inFlightRefresh.compareAndSet(refresh, null));
+    try {
+      loader.execute(() -> refresh.complete(load()));
+    } catch (RejectedExecutionException e) {
+      refresh.complete(load());
+    }
+    return refresh;
+  }
+
+  private boolean load() {
+    try {
+      String response = restOperations.getForObject(jwkSetUri, String.class);
+      Assert.hasText(response, "Jwk set response must not be empty.");
+      JWKSet newJwkSet = JWKSet.parse(response);
+      jwkSet.set(newJwkSet);
+      log.debug("Jwk set loaded from {} (keys = {}).", jwkSetUri, newJwkSet.getKeys().size());
+      return true;
+
+    } catch (Exception e) {
+      log.error("Loading jwk set from " + jwkSetUri + " failed, keeping current keys.", e);
+      return false;
+    }
+  }
+
+  @Override
+  public List<JWK> get(JWKSelector jwkSelector, SecurityContext context)
+      throws KeySourceException {
+    List<JWK> keys = jwkSelector.select(jwkSet.get());
+    if (keys.isEmpty() && refreshForUnknownKeyId()) {
+      keys = jwkSelector.select(jwkSet.get());
+    }
+    return keys;
+  }
+
+  /**
+   * Refreshes the jwk set because of an unknown key id, if the last such refresh is older than the
+   * unknown key id refresh interval. If a refresh is already in flight (also the background
+   * refresh), the caller waits for it instead. The caller waits at most the timeout.
+   *
+   * @return {@code true} if the jwk set may have changed, otherwise {@code false}
+   */
+  boolean refreshForUnknownKeyId() {
+    CompletableFuture<Boolean> refresh = inFlightRefresh.get();
+    if (refresh == null) {
+      long now = System.currentTimeMillis();
+      long last = lastUnknownKeyIdRefresh.get();
+      if (now - last < unknownKeyIdRefreshInterval.toMillis()
+          || !lastUnknownKeyIdRefresh.compareAndSet(last, now)) {
+        refresh = inFlightRefresh.get();
+        if (refresh == null) {
+          return false;
+        }
+      } else {
+        log.info("Unknown key id, loading jwk set from {}", jwkSetUri);
+        ScheduledExecutorService loader = executor;
+        refresh = startRefresh(loader != null ? loader : Runnable::run);
+      }
+    }
+    return await(refresh);
+  }
+
+  private boolean await(CompletableFuture<Boolean> refresh) {
+    try {
+      return refresh.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+    } catch (TimeoutException e) {
+      log.warn("Refreshing jwk set from {} takes longer than {}, using current keys.",
+          jwkSetUri, timeout);
+      return false;
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+
+    } catch (ExecutionException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public synchronized void destroy() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "PrefetchingJwkSource {jwkSetUri = " + jwkSetUri
+        + ", refreshInterval = " + refreshInterval
+        + ", unknownKeyIdRefreshInterval = " + unknownKeyIdRefreshInterval
+        + ", timeout = " + timeout
+        + '}';
+  }
+}
@@ -18,6 +18,10 @@ package org.bremersee.security.authentication;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import net.minidev.json.JSONObject;
 import net.minidev.json.JSONValue;
 import org.bremersee.exception.AccessTokenRetrieverAuthenticationException;
@@ -32,7 +36,9 @@ import org.springframework.web.client.DefaultResponseErrorHandler;
 import org.springframework.web.client.RestTemplate;
 
 /**
- * The rest template access token retriever.
+ * The rest template access token retriever. Concurrent requests for the same cache key are
+ * coalesced, so that only one request is sent to the token endpoint and all waiting callers share
+ * its result.
  *
  * @author Christian Bremer
  */
@@ -42,6 +48,9 @@ public class RestTemplateAccessTokenRetriever implements AccessTokenRetriever<St
 
   private final AccessTokenCache accessTokenCache;
 
+  private final ConcurrentMap<String, CompletableFuture<String>> inFlightRequests
+      = new ConcurrentHashMap<>();
+
   /**
    * Instantiates a new rest template access token retriever.
    *
@@ -71,31 +80,60 @@ public class RestTemplateAccessTokenRetriever implements AccessTokenRetriever<St
     final String cacheKey = input.createCacheKeyHashed();
     return Optional.ofNullable(accessTokenCache)
         .flatMap(cache -> cache.findAccessToken(cacheKey))
-        .orElseGet(() -> {
-          final HttpHeaders headers = new HttpHeaders();
-          headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-          input.getBasicAuthProperties()
-              .ifPresent(basicAuthProperties -> headers.setBasicAuth(
-                  basicAuthProperties.getUsername(),
-                  basicAuthProperties.getPassword()));
-          final HttpEntity<?> request = new HttpEntity<>(input.createBody(), headers);
-          final String response = restTemplate.exchange(
-              input.getTokenEndpoint(),
-              HttpMethod.POST,
-              request,
-              String.class)
-              .getBody();
-          final JSONObject json = (JSONObject) JSONValue.parse(response);
-          final String accessToken = json.getAsString("access_token");
-          if (StringUtils.hasText(accessToken)) {
-            if (accessTokenCache != null) {
-              accessTokenCache.putAccessToken(cacheKey, accessToken);
-            }
-            return accessToken;
-          }
-          throw new AccessTokenRetrieverAuthenticationException(HttpStatus.UNAUTHORIZED,
-              "There is no access token in the response: " + accessToken);
-        });
+        .orElseGet(() -> cacheKey != null
+            ? retrieveAccessTokenOnce(cacheKey, input)
+            : requestAccessToken(input));
+  }
+
+  private String retrieveAccessTokenOnce(String cacheKey, AccessTokenRetrieverProperties input) {
+    final CompletableFuture<String> future = new CompletableFuture<>();
+    final CompletableFuture<String> inFlight = inFlightRequests.putIfAbsent(cacheKey, future);
+    if (inFlight != null) {
+      try {
+        return inFlight.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    }
+    try {
+      final String accessToken = requestAccessToken(input);
+      if (accessTokenCache != null) {
+        accessTokenCache.putAccessToken(cacheKey, accessToken, () -> requestAccessToken(input));
+      }
+      future.complete(accessToken);
+      return accessToken;
+    } catch (RuntimeException | Error e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlightRequests.remove(cacheKey, future);
+    }
+  }
+
+  private String requestAccessToken(AccessTokenRetrieverProperties input) {
+    final HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+    input.getBasicAuthProperties()
+        .ifPresent(basicAuthProperties -> headers.setBasicAuth(
+            basicAuthProperties.getUsername(),
+            basicAuthProperties.getPassword()));
+    final HttpEntity<?> request = new HttpEntity<>(input.createBody(), headers);
+    final String response = restTemplate.exchange(
+        input.getTokenEndpoint(),
+        HttpMethod.POST,
+        request,
+        String.class)
+        .getBody();
+    final JSONObject json = (JSONObject) JSONValue.parse(response);
+    final String accessToken = json.getAsString("access_token");
+    if (StringUtils.hasText(accessToken)) {
+      return accessToken;
+    }
+    throw new AccessTokenRetrieverAuthenticationException(HttpStatus.UNAUTHORIZED,
+        "There is no access token in the response: " + accessToken);
   }
 
   private static class ErrorHandler extends DefaultResponseErrorHandler {
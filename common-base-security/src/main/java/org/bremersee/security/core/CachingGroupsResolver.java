@@ -0,0 +1,230 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.Assert;
+
+/**
+ * A groups function for the {@link UserContextCaller}, that caches the groups of the wrapped
+ * function (for example a ldap lookup) per user.
+ *
+ * <p>The groups of a user live in the cache for the given time to live. Concurrent lookups of the
+ * same user share one call of the wrapped function. If cached groups are older than the refresh
+ * interval, they are returned and reloaded in the background; if reloading fails, the cached
+ * groups are kept until they expire.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public class CachingGroupsResolver implements Function<Authentication, Set<String>>,
+    DisposableBean {
+
+  private final Function<Authentication, Set<String>> groupsFn;
+
+  private final ExpiringCache<String, CachedGroups> cache;
+
+  private final Duration timeToLive;
+
+  private final Duration refreshInterval;
+
+  private final Executor executor;
+
+  private final ExecutorService ownExecutor;
+
+  private final ConcurrentMap<String, CompletableFuture<Set<String>>> inFlightLookups
+      = new ConcurrentHashMap<>();
+
+  /**
+   * Instantiates a new caching groups resolver.
+   *
+   * @param groupsFn the groups function
+   * @param maximumSize the maximum number of cached users
+   * @param timeToLive the time to live of the cached groups (can be {@code null}, default is 5
+   *     minutes)
+   * @param refreshInterval the time after which cached groups are reloaded in the background
+   *     (can be {@code null}, default is three quarters of the time to live)
+   * @param executor the executor of the background reloads (can be {@code null})
+   */
+  public CachingGroupsResolver(
+      Function<Authentication, Set<String>> groupsFn,
+      int maximumSize,
+      Duration timeToLive,
+      Duration refreshInterval,
+      Executor executor) {
+    Assert.notNull(groupsFn, "Groups function must be present.");
+    this.groupsFn = groupsFn;
+    this.cache = new ExpiringCache<>(maximumSize);
+    this.timeToLive = Objects.requireNonNullElseGet(timeToLive, () -> Duration.ofMinutes(5L));
+    this.refreshInterval = Objects.requireNonNullElseGet(
+        refreshInterval,
+        () -> this.timeToLive.multipliedBy(3L).dividedBy(4L));
+    if (executor != null) {
+      this.executor = executor;
+      this.ownExecutor = null;
+    } else {
+      this.ownExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "groups-refresh");
+        thread.setDaemon(true);
+        return thread;
+      });
+      this.executor = this.ownExecutor;
+    }
+  }
+
+  /**
+   * Gets the cache.
+   *
+   * @return the cache
+   */
+  public ExpiringCache<String, CachedGroups> getCache() {
+    return cache;
+  }
+
+  @Override
+  public Set<String> apply(Authentication authentication) {
+    String key = authentication != null ? authentication.getName() : null;
+    if (key == null) {
+      return groupsFn.apply(authentication);
+    }
+    CachedGroups cachedGroups = cache.get(key);
+    if (cachedGroups != null) {
+      if (System.currentTimeMillis() >= cachedGroups.getRefreshAt()) {
+        load(key, authentication, true);
+      }
+      return cachedGroups.getGroups();
+    }
+    try {
+      return load(key, authentication, false).join();
+
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private CompletableFuture<Set<String>> load(
+      String key,
+      Authentication authentication,
+      boolean async) {
+
+    CompletableFuture<Set<String>> future = new CompletableFuture<>();
+    CompletableFuture<Set<String>> inFlightLookup = inFlightLookups.putIfAbsent(key, future);
+    if (inFlightLookup != null) {
+      return inFlightLookup;
+    }
+    Runnable task = () -> {
+      try {
+        Set<String> groups = groupsFn.apply(authentication);
+        groups = groups != null ? Set.copyOf(groups) : Collections.emptySet();
+        long now = System.currentTimeMillis();
+        cache.put(
+            key,
+            new CachedGroups(groups, now + refreshInterval.toMillis()),
+            now + timeToLive.toMillis());
+        future.complete(groups);
+
+      } catch (RuntimeException e) {
+        if (async) {
+          log.error("Reloading groups of user " + key + " failed.", e);
+        }
+        future.completeExceptionally(e);
+
+      } finally {
+        inFlightLookups.remove(key, future);
+      }
+    };
+    if (async) {
+      executor.execute(task);
+    } else {
+      task.run();
+    }
+    return future;
+  }
+
+  @Override
+  public void destroy() {
+    cache.clear();
+    if (ownExecutor != null) {
+      ownExecutor.shutdownNow();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CachingGroupsResolver {maximumSize = " + cache.getMaximumSize()
+        + ", timeToLive = " + timeToLive
+        + ", refreshInterval = " + refreshInterval
+        + '}';
+  }
+
+  /**
+   * The cached groups of a user.
+   */
+  public static class CachedGroups {
+
+    private final Set<String> groups;
+
+    private final long refreshAt;
+
+    /**
+     * Instantiates new cached groups.
+     *
+     * @param groups the groups
+     * @param refreshAt the time in millis, when the groups should be reloaded
+     */
+    public CachedGroups(Set<String> groups, long refreshAt) {
+      this.groups = groups;
+      this.refreshAt = refreshAt;
+    }
+
+    /**
+     * Gets the groups.
+     *
+     * @return the groups
+     */
+    public Set<String> getGroups() {
+      return groups;
+    }
+
+    /**
+     * Gets the time in millis, when the groups should be reloaded.
+     *
+     * @return the refresh time
+     */
+    public long getRefreshAt() {
+      return refreshAt;
+    }
+  }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.validation.constraints.NotNull;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+/**
+ * A bounded in memory cache, whose entries expire at an individual point in time (for example the
+ * expiration time of a token). Reads don't block. If the cache is full, expired entries are removed
+ * first and then the entries, that will expire next. The cache counts hits, misses and evictions.
+ *
+ * @param <K> the type of the key
+ * @param <V> the type of the value
+ * @author Christian Bremer
+ */
+@ToString(of = {"maximumSize"})
+public class ExpiringCache<K, V> {
+
+  private final ConcurrentMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+  private final NavigableSet<Entry<K, V>> expirationOrder = new TreeSet<>(Comparator
+      .<Entry<K, V>>comparingLong(entry -> entry.expiresAt)
+      .thenComparingLong(entry -> entry.sequence));
+
+  private final int maximumSize;
+
+  private final LongAdder hitCount = new LongAdder();
+
+  private final LongAdder missCount = new LongAdder();
+
+  private final LongAdder evictionCount = new LongAdder();
+
+  private long sequence;
+
+  /**
+   * Instantiates a new expiring cache.
+   *
+   * @param maximumSize the maximum size
+   */
+  public ExpiringCache(int maximumSize) {
+    Assert.isTrue(maximumSize > 0, "Maximum size must be greater than 0.");
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * Gets the maximum size.
+   *
+   * @return the maximum size
+   */
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Gets the number of successful lookups.
+   *
+   * @return the hit count
+   */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * Gets the number of lookups, that found no value or an expired value.
+   *
+   * @return the miss count
+   */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /**
+   * Gets the number of entries, that were removed because they expired or because the cache was
+   * full.
+   *
+   * @return the eviction count
+   */
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  /**
+   * Gets the value of the given key, if it is present and not expired.
+   *
+   * @param key the key
+   * @return the value or {@code null}
+   */
+  public V get(@NotNull K key) {
+    Entry<K, V> entry = entries.get(key);
+    if (entry == null) {
+      missCount.increment();
+      return null;
+    }
+    if (entry.expiresAt <= System.currentTimeMillis()) {
+      missCount.increment();
+      if (remove(entry)) {
+        evictionCount.increment();
+      }
+      return null;
+    }
+    hitCount.increment();
+    return entry.value;
+  }
+
+  /**
+   * Puts a value into the cache. If the expiration time has already passed, nothing is stored and
+   * an existing value of the key is removed.
+   *
+   * @param key the key
+   * @param value the value
+   * @param expiresAt the expiration time in milliseconds since epoch
+   */
+  public void put(@NotNull K key, @NotNull V value, long expiresAt) {
+    long now = System.currentTimeMillis();
+    if (expiresAt <= now) {
+      remove(key);
+      return;
+    }
+    synchronized (expirationOrder) {
+      Entry<K, V> newEntry = new Entry<>(key, value, expiresAt, sequence++);
+      Entry<K, V> oldEntry = entries.put(key, newEntry);
+      if (oldEntry != null) {
+        expirationOrder.remove(oldEntry);
+      }
+      expirationOrder.add(newEntry);
+      evict(now);
+    }
+  }
+
+  /**
+   * Removes the value of the given key.
+   *
+   * @param key the key
+   */
+  public void remove(@NotNull K key) {
+    Entry<K, V> entry = entries.get(key);
+    if (entry != null) {
+      remove(entry);
+    }
+  }
+
+  /**
+   * Removes all expired entries.
+   */
+  public void removeExpired() {
+    synchronized (expirationOrder) {
+      evict(System.currentTimeMillis());
+    }
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public void clear() {
+    synchronized (expirationOrder) {
+      entries.clear();
+      expirationOrder.clear();
+    }
+  }
+
+  /**
+   * Gets the number of entries (including expired entries, that are not removed yet).
+   *
+   * @return the size
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  private boolean remove(Entry<K, V> entry) {
+    synchronized (expirationOrder) {
+      if (entries.remove(entry.key, entry)) {
+        expirationOrder.remove(entry);
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private void evict(long now) {
+    while (!expirationOrder.isEmpty()
+        && (expirationOrder.first().expiresAt <= now || expirationOrder.size() > maximumSize)) {
+      Entry<K, V> entry = expirationOrder.pollFirst();
+      if (entries.remove(entry.key, entry)) {
+        evictionCount.increment();
+      }
+    }
+  }
+
+  private static class Entry<K, V> {
+
+    private final K key;
+
+    private final V value;
+
+    private final long expiresAt;
+
+    private final long sequence;
+
+    private Entry(K key, V value, long expiresAt, long sequence) {
+      this.key = key;
+      this.value = value;
+      this.expiresAt = expiresAt;
+      this.sequence = sequence;
+    }
+  }
+
+}
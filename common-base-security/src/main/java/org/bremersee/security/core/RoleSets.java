@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Shared, immutable role sets. Many users have the same roles, so equal role sets are interned
+ * and the same instance is used for all of them. The number of interned role sets is bounded;
+ * if the limit is reached, new role sets are still immutable, but not shared.
+ *
+ * @author Christian Bremer
+ */
+public abstract class RoleSets {
+
+  /**
+   * The maximum number of interned role sets.
+   */
+  public static final int MAXIMUM_SIZE = 10000;
+
+  private static final ConcurrentMap<Set<String>, Set<String>> pool = new ConcurrentHashMap<>();
+
+  private RoleSets() {
+  }
+
+  /**
+   * Gets the interned, immutable role set, that is equal to the given roles.
+   *
+   * @param roles the roles
+   * @return the interned role set
+   */
+  public static Set<String> intern(@Nullable Collection<String> roles) {
+    if (roles == null || roles.isEmpty()) {
+      return Collections.emptySet();
+    }
+    return internSet(roles instanceof Set ? (Set<String>) roles : new HashSet<>(roles));
+  }
+
+  /**
+   * Gets the interned, immutable role set of the given authorities.
+   *
+   * @param authorities the authorities
+   * @return the interned role set
+   */
+  public static Set<String> fromAuthorities(
+      @Nullable Collection<? extends GrantedAuthority> authorities) {
+    if (authorities == null || authorities.isEmpty()) {
+      return Collections.emptySet();
+    }
+    Set<String> roles = new HashSet<>(authorities.size() * 2);
+    for (GrantedAuthority authority : authorities) {
+      roles.add(authority.getAuthority());
+    }
+    return internSet(roles);
+  }
+
+  private static Set<String> internSet(Set<String> roles) {
+    Set<String> interned = pool.get(roles);
+    if (interned != null) {
+      return interned;
+    }
+    Set<String> immutableRoles = Set.copyOf(roles);
+    if (pool.size() >= MAXIMUM_SIZE) {
+      return immutableRoles;
+    }
+    interned = pool.putIfAbsent(immutableRoles, immutableRoles);
+    return interned != null ? interned : immutableRoles;
+  }
+
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * A known set of roles (the universe), whose members have a fixed index. With the universe role
+ * sets can be represented as compact bit sets ({@link Mask}), so that checks like
+ * {@link UserContext#hasAnyRole(Mask)} don't need to hash any strings. Roles, that are not part
+ * of the universe, are ignored by the masks.
+ *
+ * @author Christian Bremer
+ */
+public final class RoleUniverse {
+
+  private final Map<String, Integer> indexes;
+
+  private final int words;
+
+  private RoleUniverse(Collection<String> roles) {
+    Map<String, Integer> map = new LinkedHashMap<>();
+    for (String role : roles) {
+      Assert.hasText(role, "Role must be present.");
+      map.putIfAbsent(role, map.size());
+    }
+    this.indexes = Collections.unmodifiableMap(map);
+    this.words = Math.max(1, (map.size() + 63) >>> 6);
+  }
+
+  /**
+   * Creates a role universe.
+   *
+   * @param roles the known roles
+   * @return the role universe
+   */
+  public static RoleUniverse of(Collection<String> roles) {
+    Assert.notNull(roles, "Roles must be present.");
+    return new RoleUniverse(roles);
+  }
+
+  /**
+   * Creates a role universe.
+   *
+   * @param roles the known roles
+   * @return the role universe
+   */
+  public static RoleUniverse of(String... roles) {
+    Assert.notNull(roles, "Roles must be present.");
+    return new RoleUniverse(Arrays.asList(roles));
+  }
+
+  /**
+   * Gets the known roles.
+   *
+   * @return the known roles
+   */
+  public Set<String> getRoles() {
+    return indexes.keySet();
+  }
+
+  /**
+   * Gets the number of known roles.
+   *
+   * @return the size
+   */
+  public int size() {
+    return indexes.size();
+  }
+
+  /**
+   * Creates the mask of the given roles.
+   *
+   * @param roles the roles
+   * @return the mask
+   */
+  public Mask mask(@Nullable Collection<String> roles) {
+    long[] bits = new long[words];
+    if (roles != null) {
+      for (String role : roles) {
+        Integer index = role != null ? indexes.get(role) : null;
+        if (index != null) {
+          bits[index >>> 6] |= 1L << index;
+        }
+      }
+    }
+    return new Mask(this, bits);
+  }
+
+  /**
+   * Creates the mask of the given roles.
+   *
+   * @param roles the roles
+   * @return the mask
+   */
+  public Mask mask(@Nullable String... roles) {
+    return mask(roles != null ? Arrays.asList(roles) : null);
+  }
+
+  @Override
+  public String toString() {
+    return "RoleUniverse {roles = " + indexes.keySet() + '}';
+  }
+
+  /**
+   * A role set as bit set over a role universe.
+   */
+  public static final class Mask {
+
+    private final RoleUniverse universe;
+
+    private final long[] bits;
+
+    private Mask(RoleUniverse universe, long[] bits) {
+      this.universe = universe;
+      this.bits = bits;
+    }
+
+    /**
+     * Gets the role universe of this mask.
+     *
+     * @return the role universe
+     */
+    public RoleUniverse getUniverse() {
+      return universe;
+    }
+
+    /**
+     * Determines whether this mask has no roles.
+     *
+     * @return {@code true} if this mask has no roles, otherwise {@code false}
+     */
+    public boolean isEmpty() {
+      for (long word : bits) {
+        if (word != 0L) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Determines whether this mask contains the given role.
+     *
+     * @param role the role
+     * @return {@code true} if the role is contained, otherwise {@code false}
+     */
+    public boolean contains(@Nullable String role) {
+      Integer index = role != null ? universe.indexes.get(role) : null;
+      return index != null && (bits[index >>> 6] & (1L << index)) != 0L;
+    }
+
+    /**
+     * Determines whether this mask and the given mask have at least one role in common.
+     *
+     * @param other the other mask (must have the same universe)
+     * @return {@code true} if both masks have a common role, otherwise {@code false}
+     */
+    public boolean intersects(@Nullable Mask other) {
+      if (other == null) {
+        return false;
+      }
+      Assert.isTrue(universe == other.universe, "Masks must have the same role universe.");
+      for (int i = 0; i < bits.length; i++) {
+        if ((bits[i] & other.bits[i]) != 0L) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Gets the roles of this mask.
+     *
+     * @return the roles
+     */
+    public Set<String> getRoles() {
+      return universe.indexes.keySet().stream()
+          .filter(this::contains)
+          .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Mask)) {
+        return false;
+      }
+      Mask mask = (Mask) o;
+      return universe == mask.universe && Arrays.equals(bits, mask.bits);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(universe) + Arrays.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+      return "Mask {roles = " + getRoles() + '}';
+    }
+  }
+
+}
@@ -22,14 +22,12 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import javax.validation.constraints.NotNull;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import org.springframework.lang.Nullable;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 
@@ -153,6 +151,28 @@ public interface UserContext extends Principal {
         .orElse(false);
   }
 
+  /**
+   * Gets the roles as mask of the given role universe.
+   *
+   * @param universe the role universe
+   * @return the role mask
+   */
+  @NotNull
+  default RoleUniverse.Mask getRoleMask(@NotNull RoleUniverse universe) {
+    return universe.mask(getRoles());
+  }
+
+  /**
+   * Has any role of the given mask. The mask should be created once (for example as a constant),
+   * then the check doesn't need to hash any role names.
+   *
+   * @param roles the roles as mask
+   * @return the boolean
+   */
+  default boolean hasAnyRole(@Nullable RoleUniverse.Mask roles) {
+    return roles != null && roles.intersects(getRoleMask(roles.getUniverse()));
+  }
+
   /**
    * Is in group boolean.
    *
@@ -188,7 +208,7 @@ public interface UserContext extends Principal {
   }
 
   /**
-   * The default implementation.
+   * The default implementation. The roles are interned (see {@link RoleSets}).
    */
   @ToString
   @EqualsAndHashCode
@@ -203,6 +223,10 @@ public interface UserContext extends Principal {
     @Getter
     private final Set<String> groups;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile RoleUniverse.Mask roleMask;
+
     /**
      * Instantiates a new user context.
      */
@@ -217,14 +241,11 @@ public interface UserContext extends Principal {
      * @param groups the groups
      */
     public Impl(Authentication authentication, Collection<String> groups) {
-      this(
-          Optional.ofNullable(authentication).map(Principal::getName).orElse(null),
-          Optional.ofNullable(authentication)
-              .map(auth -> auth.getAuthorities().stream()
-                  .map(GrantedAuthority::getAuthority)
-                  .collect(Collectors.toSet()))
-              .orElse(null),
-          groups);
+      this.userId = authentication != null ? authentication.getName() : null;
+      this.roles = authentication != null
+          ? RoleSets.fromAuthorities(authentication.getAuthorities())
+          : Collections.emptySet();
+      this.groups = groups != null ? Set.copyOf(groups) : Collections.emptySet();
     }
 
     /**
@@ -236,10 +257,19 @@ public interface UserContext extends Principal {
      */
     public Impl(String userId, Collection<String> roles, Collection<String> groups) {
       this.userId = userId;
-      this.roles = roles != null ? Set.copyOf(roles) : Collections.emptySet();
+      this.roles = RoleSets.intern(roles);
       this.groups = groups != null ? Set.copyOf(groups) : Collections.emptySet();
     }
-  }
 
+    @Override
+    public RoleUniverse.Mask getRoleMask(RoleUniverse universe) {
+      RoleUniverse.Mask mask = roleMask;
+      if (mask == null || mask.getUniverse() != universe) {
+        mask = universe.mask(roles);
+        roleMask = mask;
+      }
+      return mask;
+    }
+  }
 
 }
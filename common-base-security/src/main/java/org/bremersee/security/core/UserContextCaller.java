@@ -28,10 +28,15 @@ import org.springframework.lang.Nullable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * The user context caller.
  *
+ * <p>Within a web request the user context is created once per authentication and caller and is
+ * reused by all further calls of this caller in the same request.
+ *
  * @author Christian Bremer
  */
 @Validated
@@ -51,6 +56,9 @@ public class UserContextCaller {
 
   private final Supplier<ServiceException> unauthenticatedExceptionSupplier;
 
+  private final String userContextAttributeName = UserContextCaller.class.getName()
+      + ".USER_CONTEXT." + Integer.toHexString(System.identityHashCode(this));
+
   /**
    * Instantiates a new user context caller.
    */
@@ -121,7 +129,7 @@ public class UserContextCaller {
     if (authentication == null || !authentication.isAuthenticated()) {
       throw unauthenticatedExceptionSupplier.get();
     }
-    return function.apply(UserContext.newInstance(authentication, groupsFn.apply(authentication)));
+    return function.apply(getUserContext(authentication));
   }
 
   /**
@@ -136,7 +144,28 @@ public class UserContextCaller {
     if (authentication == null || !authentication.isAuthenticated()) {
       return function.apply(UserContext.newInstance());
     }
-    return function.apply(UserContext.newInstance(authentication, groupsFn.apply(authentication)));
+    return function.apply(getUserContext(authentication));
+  }
+
+  private UserContext getUserContext(Authentication authentication) {
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes == null) {
+      return UserContext.newInstance(authentication, groupsFn.apply(authentication));
+    }
+    Object value = requestAttributes
+        .getAttribute(userContextAttributeName, RequestAttributes.SCOPE_REQUEST);
+    if (value instanceof RequestUserContext
+        && ((RequestUserContext) value).caller == this
+        && ((RequestUserContext) value).authentication == authentication) {
+      return ((RequestUserContext) value).userContext;
+    }
+    UserContext userContext = UserContext
+        .newInstance(authentication, groupsFn.apply(authentication));
+    requestAttributes.setAttribute(
+        userContextAttributeName,
+        new RequestUserContext(this, authentication, userContext),
+        RequestAttributes.SCOPE_REQUEST);
+    return userContext;
   }
 
   /**
@@ -184,4 +213,25 @@ public class UserContextCaller {
     }
   }
 
+  /**
+   * The user context of a request.
+   */
+  private static class RequestUserContext {
+
+    private final UserContextCaller caller;
+
+    private final Authentication authentication;
+
+    private final UserContext userContext;
+
+    private RequestUserContext(
+        UserContextCaller caller,
+        Authentication authentication,
+        UserContext userContext) {
+      this.caller = caller;
+      this.authentication = authentication;
+      this.userContext = userContext;
+    }
+  }
+
 }
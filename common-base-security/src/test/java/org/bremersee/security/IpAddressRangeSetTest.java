@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ip address range set test.
+ *
+ * @author Christian Bremer
+ */
+class IpAddressRangeSetTest {
+
+  /**
+   * Matches IPv4.
+   */
+  @Test
+  void matchesIpv4() {
+    IpAddressRangeSet rangeSet = IpAddressRangeSet.compile(Arrays.asList(
+        "10.0.0.0/8", "192.168.1.0/24", "192.168.1.128/25", "172.16.0.1", "192.168.2.0/24"));
+    assertTrue(rangeSet.matches("10.1.2.3"));
+    assertTrue(rangeSet.matches("192.168.1.23"));
+    assertTrue(rangeSet.matches("192.168.1.255"));
+    assertTrue(rangeSet.matches("192.168.2.1"));
+    assertTrue(rangeSet.matches("172.16.0.1"));
+    assertFalse(rangeSet.matches("172.16.0.2"));
+    assertFalse(rangeSet.matches("192.168.3.1"));
+    assertFalse(rangeSet.matches("11.0.0.1"));
+    assertFalse(rangeSet.matches("::1"));
+    assertFalse(rangeSet.matches("localhost"));
+    assertFalse(rangeSet.matches((String) null));
+  }
+
+  /**
+   * Matches all.
+   */
+  @Test
+  void matchesAll() {
+    IpAddressRangeSet rangeSet = IpAddressRangeSet.compile("0.0.0.0/0", "::/0");
+    assertTrue(rangeSet.matches("255.255.255.255"));
+    assertTrue(rangeSet.matches("0.0.0.0"));
+    assertTrue(rangeSet.matches("ffff::1"));
+  }
+
+  /**
+   * Matches IPv6.
+   */
+  @Test
+  void matchesIpv6() {
+    IpAddressRangeSet rangeSet = IpAddressRangeSet.compile("fd00::/8", "2001:db8::/96", "::1");
+    assertTrue(rangeSet.matches("fd12:3456::1"));
+    assertTrue(rangeSet.matches("2001:db8::ffff:1"));
+    assertTrue(rangeSet.matches("::1"));
+    assertFalse(rangeSet.matches("2001:db8::1:0:0:1"));
+    assertFalse(rangeSet.matches("fe00::1"));
+    assertFalse(rangeSet.matches("127.0.0.1"));
+  }
+
+  /**
+   * Empty.
+   */
+  @Test
+  void empty() {
+    assertTrue(IpAddressRangeSet.compile().isEmpty());
+    assertFalse(IpAddressRangeSet.compile().matches("127.0.0.1"));
+  }
+
+  /**
+   * Illegal mask.
+   */
+  @Test
+  void illegalMask() {
+    assertThrows(IllegalArgumentException.class, () -> IpAddressRangeSet.compile("10.0.0.0/33"));
+  }
+
+  /**
+   * Parse IPv4.
+   */
+  @Test
+  void parseIpv4() {
+    assertEquals(0xC0A80117L, IpAddressRangeSet.parseIpv4("192.168.1.23"));
+    assertEquals(-1L, IpAddressRangeSet.parseIpv4("192.168.1"));
+    assertEquals(-1L, IpAddressRangeSet.parseIpv4("192.168.1.256"));
+    assertEquals(-1L, IpAddressRangeSet.parseIpv4("192.168..23"));
+    assertEquals(-1L, IpAddressRangeSet.parseIpv4("a.b.c.d.e.f"));
+  }
+
+}
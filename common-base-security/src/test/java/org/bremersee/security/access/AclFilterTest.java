@@ -0,0 +1,136 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.bremersee.common.model.AccessControlList;
+import org.bremersee.security.core.UserContext;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The acl filter test.
+ *
+ * @author Christian Bremer
+ */
+class AclFilterTest {
+
+  private static final UserContext userContext = UserContext
+      .newInstance("anna", Set.of("ROLE_USER"), Set.of("friends"));
+
+  private static Acl<? extends Ace> acl(int i) {
+    AclBuilder builder = AclBuilder.builder().owner(i % 7 == 0 ? "anna" : "livia");
+    if (i % 5 == 0) {
+      builder.addRole("ROLE_USER", PermissionConstants.READ);
+    }
+    if (i % 3 == 0) {
+      builder.addGroup("friends", PermissionConstants.READ);
+    }
+    if (i % 11 == 0) {
+      builder.guest(true, PermissionConstants.READ);
+    }
+    if (i % 13 == 0) {
+      builder.addUser("anna", PermissionConstants.WRITE);
+    }
+    return builder.buildAcl();
+  }
+
+  /**
+   * Test.
+   */
+  @Test
+  void test() {
+    AclFilter filter = new AclFilter(userContext, "READ");
+    assertTrue(filter.test(AclBuilder.builder().owner("anna").buildAcl()));
+    assertTrue(filter.test(AclBuilder.builder().addUser("anna", "read").buildAcl()));
+    assertTrue(filter.test(AclBuilder.builder().addRole("ROLE_USER", "read").buildAcl()));
+    assertTrue(filter.test(AclBuilder.builder().addGroup("friends", "read").buildAcl()));
+    assertTrue(filter.test(AclBuilder.builder().guest(true, "read").buildAcl()));
+    assertFalse(filter.test(AclBuilder.builder().addUser("anna", "write").buildAcl()));
+    assertFalse(filter.test(AclBuilder.builder().addRole("ROLE_ADMIN", "read").buildAcl()));
+    assertFalse(filter.test((Acl<?>) null));
+    assertFalse(filter.test((AccessControlList) null));
+  }
+
+  /**
+   * Filter.
+   */
+  @Test
+  void filter() {
+    List<Acl<? extends Ace>> acls = IntStream.range(0, 1000)
+        .mapToObj(AclFilterTest::acl)
+        .collect(Collectors.toList());
+    List<Acl<? extends Ace>> expected = new ArrayList<>();
+    for (Acl<? extends Ace> acl : acls) {
+      if (AccessController.from(acl).hasPermission(
+          userContext.getUserId(),
+          userContext.getRoles(),
+          userContext.getGroups(),
+          PermissionConstants.READ)) {
+        expected.add(acl);
+      }
+    }
+
+    AclFilter filter = new AclFilter(userContext, PermissionConstants.READ);
+    assertEquals(expected, filter.filter(acls));
+    assertEquals(expected, filter.filter(acls.stream()).collect(Collectors.toList()));
+
+    AclFilter parallelFilter = new AclFilter(userContext, PermissionConstants.READ, 100);
+    assertEquals(expected, parallelFilter.filter(acls));
+  }
+
+  /**
+   * Filter by access control list.
+   */
+  @Test
+  void filterByAccessControlList() {
+    List<AccessControlList> acls = IntStream.range(0, 100)
+        .mapToObj(i -> AclBuilder.builder().from(acl(i)).buildAccessControlList())
+        .collect(Collectors.toList());
+    List<AccessControlList> expected = acls.stream()
+        .filter(acl -> AccessController.from(acl).hasPermission(
+            userContext.getUserId(),
+            userContext.getRoles(),
+            userContext.getGroups(),
+            PermissionConstants.WRITE))
+        .collect(Collectors.toList());
+
+    AclFilter filter = new AclFilter(userContext, PermissionConstants.WRITE, 10);
+    assertEquals(expected, filter.filterByAccessControlList(acls, acl -> acl));
+  }
+
+  /**
+   * To predicate.
+   */
+  @Test
+  void toPredicate() {
+    AclFilter filter = new AclFilter(userContext, PermissionConstants.READ);
+    AclPredicate predicate = filter.toPredicate();
+    assertEquals(5, ((AclPredicate.Or) predicate).getOperands().size());
+    IntStream.range(0, 100)
+        .mapToObj(AclFilterTest::acl)
+        .forEach(acl -> assertEquals(filter.test(acl), predicate.test(acl)));
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The access token cache entry test.
+ *
+ * @author Christian Bremer
+ */
+class AccessTokenCacheEntryTest {
+
+  private static final Date exp = new Date(
+      System.currentTimeMillis() + Duration.ofDays(300).toMillis());
+
+  private static final String plainAccessTokenWithExp = new PlainJWT(new JWTClaimsSet.Builder()
+      .subject("subject")
+      .expirationTime(exp)
+      .jwtID(UUID.randomUUID().toString())
+      .build())
+      .serialize();
+
+  /**
+   * Of.
+   */
+  @Test
+  void of() {
+    AccessTokenCacheEntry entry = AccessTokenCacheEntry.of(plainAccessTokenWithExp);
+    assertEquals(plainAccessTokenWithExp, entry.getAccessToken());
+    assertEquals(exp.getTime() / 1000L, entry.getExpirationTimeMillis() / 1000L);
+    assertFalse(entry.isExpired(null));
+    assertTrue(entry.isExpired(Duration.ofDays(301)));
+  }
+
+  /**
+   * Of invalid token.
+   */
+  @Test
+  void ofInvalidToken() {
+    AccessTokenCacheEntry entry = AccessTokenCacheEntry.of("not-a-jwt");
+    assertEquals(0L, entry.getExpirationTimeMillis());
+    assertTrue(entry.isExpired(Duration.ofSeconds(1L)));
+  }
+
+  /**
+   * From.
+   */
+  @Test
+  void from() {
+    AccessTokenCacheEntry entry = AccessTokenCacheEntry.of(plainAccessTokenWithExp);
+    assertSame(entry, AccessTokenCacheEntry.from(entry));
+    AccessTokenCacheEntry fromString = AccessTokenCacheEntry.from(plainAccessTokenWithExp);
+    assertNotNull(fromString);
+    assertEquals(entry, fromString);
+    assertNull(AccessTokenCacheEntry.from(1L));
+    assertNull(AccessTokenCacheEntry.from(null));
+  }
+
+}
@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
@@ -65,6 +66,18 @@ class AccessTokenCacheImplWthExternalCacheTest {
     assertEquals(value, result.get());
   }
 
+  /**
+   * Put access token stores the plain access token in the external cache.
+   */
+  @Test
+  void putAccessTokenAsString() {
+    Cache external = mock(Cache.class);
+    AccessTokenCacheImpl stringCache = new AccessTokenCacheImpl(external, null, "jwt_");
+    stringCache.putAccessToken("key", value);
+    verify(external).put("jwt_key", value);
+    stringCache.destroy();
+  }
+
   /**
    * Destroy.
    */
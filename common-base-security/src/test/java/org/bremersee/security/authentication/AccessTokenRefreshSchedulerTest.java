@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The access token refresh scheduler test.
+ *
+ * @author Christian Bremer
+ */
+class AccessTokenRefreshSchedulerTest {
+
+  private static String createToken(long issuedAt, long expiresAt) {
+    return new PlainJWT(new JWTClaimsSet.Builder()
+        .subject("subject")
+        .issueTime(new Date(issuedAt))
+        .expirationTime(new Date(expiresAt))
+        .jwtID(UUID.randomUUID().toString())
+        .build())
+        .serialize();
+  }
+
+  /**
+   * Calculate delay.
+   */
+  @Test
+  void calculateDelay() {
+    AccessTokenRefreshScheduler scheduler = new AccessTokenRefreshScheduler(
+        0.5, Duration.ofSeconds(10L));
+    try {
+      long now = (System.currentTimeMillis() / 1000L) * 1000L;
+      String token = createToken(now, now + 600000L);
+      assertEquals(300000L, scheduler.calculateDelay(token, now));
+
+      token = createToken(now, now + 5000L);
+      assertEquals(-1L, scheduler.calculateDelay(token, now));
+
+      assertEquals(-1L, scheduler.calculateDelay("not-a-jwt", now));
+    } finally {
+      scheduler.destroy();
+    }
+  }
+
+  /**
+   * Schedule used token.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void scheduleUsedToken() throws Exception {
+    AccessTokenRefreshScheduler scheduler = new AccessTokenRefreshScheduler(
+        0.01, Duration.ofSeconds(1L));
+    try {
+      long now = System.currentTimeMillis();
+      CountDownLatch latch = new CountDownLatch(1);
+      scheduler.schedule("key", createToken(now, now + 30000L), latch::countDown);
+      scheduler.accessed("key");
+      assertTrue(latch.await(5L, TimeUnit.SECONDS));
+    } finally {
+      scheduler.destroy();
+    }
+  }
+
+  /**
+   * Schedule unused token.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void scheduleUnusedToken() throws Exception {
+    AccessTokenRefreshScheduler scheduler = new AccessTokenRefreshScheduler(
+        0.01, Duration.ofSeconds(1L));
+    try {
+      long now = System.currentTimeMillis();
+      CountDownLatch latch = new CountDownLatch(1);
+      scheduler.schedule("key", createToken(now, now + 30000L), latch::countDown);
+      assertFalse(latch.await(1L, TimeUnit.SECONDS));
+    } finally {
+      scheduler.destroy();
+    }
+  }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * The caching jwt decoder test.
+ *
+ * @author Christian Bremer
+ */
+class CachingJwtDecoderTest {
+
+  private static Jwt createJwt(String tokenValue, Instant expiresAt) {
+    return Jwt.withTokenValue(tokenValue)
+        .header("alg", "none")
+        .subject("subject")
+        .issuedAt(Instant.now())
+        .expiresAt(expiresAt)
+        .build();
+  }
+
+  /**
+   * Decode.
+   */
+  @Test
+  void decode() {
+    Jwt jwt = createJwt("token", Instant.now().plusSeconds(600L));
+    JwtDecoder delegate = mock(JwtDecoder.class);
+    when(delegate.decode("token")).thenReturn(jwt);
+    CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10);
+
+    assertSame(jwt, decoder.decode("token"));
+    assertSame(jwt, decoder.decode("token"));
+    verify(delegate, times(1)).decode("token");
+    assertEquals(1, decoder.getCache().size());
+  }
+
+  /**
+   * Decode expired.
+   */
+  @Test
+  void decodeExpired() {
+    Jwt jwt = createJwt("token", Instant.now().minusSeconds(1L));
+    JwtDecoder delegate = mock(JwtDecoder.class);
+    when(delegate.decode("token")).thenReturn(jwt);
+    CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10);
+
+    decoder.decode("token");
+    decoder.decode("token");
+    verify(delegate, times(2)).decode("token");
+  }
+
+}
@@ -19,6 +19,7 @@ package org.bremersee.security.authentication;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Optional;
@@ -138,4 +139,29 @@ class ClientCredentialsFlowPropertiesTest {
     assertFalse(actual.containsKey("client_id"));
     assertFalse(actual.containsKey("client_secret"));
   }
-}
\ No newline at end of file
+
+  /**
+   * Create cache key hashed.
+   */
+  @Test
+  void createCacheKeyHashed() {
+    ClientCredentialsFlowProperties properties = ClientCredentialsFlowProperties.builder()
+        .clientId("foo")
+        .clientSecret("bar")
+        .tokenEndpoint("http://localhost/token")
+        .build();
+    String hashed = properties.createCacheKeyHashed();
+    assertEquals(44, hashed.length());
+    assertNotEquals(properties.createCacheKey(), hashed);
+    assertSame(hashed, properties.createCacheKeyHashed());
+    assertEquals(hashed, ClientCredentialsFlowProperties.builder()
+        .from(properties)
+        .build()
+        .createCacheKeyHashed());
+    assertNotEquals(hashed, ClientCredentialsFlowProperties.builder()
+        .from(properties)
+        .clientSecret("other")
+        .build()
+        .createCacheKeyHashed());
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The in memory access token cache test.
+ *
+ * @author Christian Bremer
+ */
+class InMemoryAccessTokenCacheTest {
+
+  private static String createToken(long expiresAt) {
+    return new PlainJWT(new JWTClaimsSet.Builder()
+        .expirationTime(new Date(expiresAt))
+        .jwtID(UUID.randomUUID().toString())
+        .build())
+        .serialize();
+  }
+
+  /**
+   * Put and get.
+   */
+  @Test
+  void putAndGet() {
+    InMemoryAccessTokenCache cache = new InMemoryAccessTokenCache(2, Duration.ofMinutes(1L));
+    long now = System.currentTimeMillis();
+    AccessTokenCacheEntry entry = AccessTokenCacheEntry.of(createToken(now + 60000L));
+    cache.put("a", entry);
+    cache.put("b", AccessTokenCacheEntry.of(createToken(now - 1000L)));
+    assertEquals(entry, cache.get("a", Object.class));
+    assertNull(cache.get("b", Object.class));
+    assertEquals(1L, cache.getHitCount());
+    assertEquals(1L, cache.getMissCount());
+    assertEquals(1, cache.size());
+
+    cache.evict("a");
+    assertNull(cache.get("a"));
+  }
+
+  /**
+   * Evict entries that expire first.
+   */
+  @Test
+  void evictEntriesThatExpireFirst() {
+    InMemoryAccessTokenCache cache = new InMemoryAccessTokenCache(2, null);
+    long now = System.currentTimeMillis();
+    cache.put("a", AccessTokenCacheEntry.of(createToken(now + 60000L)));
+    cache.put("b", AccessTokenCacheEntry.of(createToken(now + 30000L)));
+    cache.put("c", "opaque");
+    assertEquals(2, cache.size());
+    assertNull(cache.get("b"));
+    assertEquals("opaque", cache.get("c", String.class));
+    assertEquals(1L, cache.getEvictionCount());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+}
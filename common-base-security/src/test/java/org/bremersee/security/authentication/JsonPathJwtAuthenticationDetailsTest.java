@@ -18,6 +18,7 @@ package org.bremersee.security.authentication;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.nimbusds.jwt.JWTClaimsSet;
@@ -26,6 +27,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
@@ -112,6 +114,55 @@ class JsonPathJwtAuthenticationDetailsTest {
     assertFalse(actual.isPresent());
   }
 
+  /**
+   * Gets cached preferred settings.
+   */
+  @Test
+  void getCachedPreferredSettings() {
+    JsonPathJwtAuthenticationDetails cachingDetails = new JsonPathJwtAuthenticationDetails(
+        DEFAULT_LOCALE,
+        DEFAULT_TIME_ZONE,
+        "$." + LOCALE_CLAIM,
+        "$." + TIME_ZONE_CLAIM,
+        10);
+    Locale expectedLocale = Locale.ITALY;
+    TimeZone expectedTimeZone = TimeZone.getTimeZone("GMT");
+    JwtAuthenticationToken token = createJwtAuthenticationToken(
+        expectedLocale.toString(), expectedTimeZone.getID());
+    assertEquals(Optional.of(expectedLocale), cachingDetails.getPreferredLanguage(token));
+    assertEquals(Optional.of(expectedTimeZone), cachingDetails.getPreferredTimeZone(token));
+
+    // the settings are read once per token value, so the claims of this token are not read
+    JwtAuthenticationToken tokenWithSameValue = createJwtAuthenticationToken(null, null);
+    assertEquals(
+        Optional.of(expectedLocale),
+        cachingDetails.getPreferredLanguage(tokenWithSameValue));
+    assertEquals(
+        Optional.of(expectedTimeZone),
+        cachingDetails.getPreferredTimeZone(tokenWithSameValue));
+  }
+
+  /**
+   * Gets preferred time zone as copy.
+   */
+  @Test
+  void getPreferredTimeZoneAsCopy() {
+    JsonPathJwtAuthenticationDetails cachingDetails = new JsonPathJwtAuthenticationDetails(
+        DEFAULT_LOCALE,
+        DEFAULT_TIME_ZONE,
+        "$." + LOCALE_CLAIM,
+        "$." + TIME_ZONE_CLAIM,
+        10);
+    JwtAuthenticationToken token = createJwtAuthenticationToken(null, "Europe/Berlin");
+    for (JsonPathJwtAuthenticationDetails target : List.of(details, cachingDetails)) {
+      TimeZone first = target.getPreferredTimeZone(token).get();
+      first.setID("Asia/Tokyo");
+      TimeZone second = target.getPreferredTimeZone(token).get();
+      assertNotSame(first, second);
+      assertEquals("Europe/Berlin", second.getID());
+    }
+  }
+
   private JwtAuthenticationToken createJwtAuthenticationToken(String locale, String timeZone) {
     return new JwtAuthenticationToken(createJwt(locale, timeZone));
   }
@@ -18,6 +18,8 @@ package org.bremersee.security.authentication;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -108,6 +110,45 @@ class JsonPathJwtConverterTest {
             .contains(new SimpleGrantedAuthority("ROLE_USER")));
   }
 
+  /**
+   * Test convert with complex json path.
+   */
+  @Test
+  void testConvertWithComplexJsonPath() {
+    Jwt jwt = createJwt();
+    JsonPathJwtConverter converter = new JsonPathJwtConverter();
+    converter.setRolesValueList(true);
+    converter.setRolesJsonPath("$['realm_access']['roles']");
+    converter.setNameJsonPath("$['preferred_username']");
+    converter.setRolePrefix("ROLE_");
+    JwtAuthenticationToken auth = converter.convert(jwt);
+    assertNotNull(auth);
+    assertEquals("anna", auth.getName());
+    assertTrue(auth.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_LOCAL_USER")));
+  }
+
+  /**
+   * Test convert with cache.
+   */
+  @Test
+  void testConvertWithCache() {
+    Jwt jwt = createJwt();
+    JsonPathJwtConverter converter = new JsonPathJwtConverter();
+    converter.setCacheSize(10);
+    converter.setRolesValueList(true);
+    converter.setRolesJsonPath("$.realm_access.roles");
+    converter.setNameJsonPath("$.preferred_username");
+    converter.setRolePrefix("ROLE_");
+    JwtAuthenticationToken first = converter.convert(jwt);
+    JwtAuthenticationToken second = converter.convert(jwt);
+    assertNotNull(first);
+    assertNotNull(second);
+    assertNotSame(first, second);
+    assertEquals(first.getName(), second.getName());
+    assertEquals(first.getAuthorities(), second.getAuthorities());
+    assertSame(jwt, second.getToken());
+  }
+
   private static Jwt createJwt() {
     Map<String, Object> headers = new HashMap<>();
     headers.put("alg", "RS256");
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The near cache access token cache test.
+ *
+ * @author Christian Bremer
+ */
+class NearCacheAccessTokenCacheTest {
+
+  private static String createToken(long expiresAt) {
+    return new PlainJWT(new JWTClaimsSet.Builder()
+        .expirationTime(new Date(expiresAt))
+        .jwtID(UUID.randomUUID().toString())
+        .build())
+        .serialize();
+  }
+
+  /**
+   * Find access token.
+   */
+  @Test
+  void findAccessToken() {
+    String accessToken = createToken(System.currentTimeMillis() + 600000L);
+    AccessTokenCache delegate = mock(AccessTokenCache.class);
+    when(delegate.findAccessToken("key")).thenReturn(Optional.of(accessToken));
+    NearCacheAccessTokenCache cache = new NearCacheAccessTokenCache(
+        delegate, 10, Duration.ofMinutes(1L), null);
+
+    assertEquals(Optional.of(accessToken), cache.findAccessToken("key"));
+    assertEquals(Optional.of(accessToken), cache.findAccessToken("key"));
+    verify(delegate, times(1)).findAccessToken("key");
+  }
+
+  /**
+   * Put access token.
+   */
+  @Test
+  void putAccessToken() {
+    String accessToken = createToken(System.currentTimeMillis() + 600000L);
+    AccessTokenCache delegate = mock(AccessTokenCache.class);
+    NearCacheAccessTokenCache cache = new NearCacheAccessTokenCache(
+        delegate, 10, Duration.ofMinutes(1L), null);
+
+    cache.putAccessToken("key", accessToken);
+    verify(delegate).putAccessToken("key", accessToken);
+    assertEquals(Optional.of(accessToken), cache.findAccessToken("key"));
+    verify(delegate, times(0)).findAccessToken("key");
+  }
+
+  /**
+   * Put expiring access token.
+   */
+  @Test
+  void putExpiringAccessToken() {
+    String accessToken = createToken(System.currentTimeMillis() + 10000L);
+    AccessTokenCache delegate = mock(AccessTokenCache.class);
+    when(delegate.findAccessToken("key")).thenReturn(Optional.empty());
+    NearCacheAccessTokenCache cache = new NearCacheAccessTokenCache(
+        delegate, 10, Duration.ofMinutes(1L), Duration.ofSeconds(20L));
+
+    cache.putAccessToken("key", accessToken);
+    assertTrue(cache.findAccessToken("key").isEmpty());
+  }
+
+  /**
+   * Find access tokens.
+   */
+  @Test
+  void findAccessTokens() {
+    long expiresAt = System.currentTimeMillis() + 600000L;
+    String accessToken0 = createToken(expiresAt);
+    String accessToken1 = createToken(expiresAt);
+    AccessTokenCache delegate = mock(AccessTokenCache.class);
+    when(delegate.findAccessTokens(List.of("key1", "key2")))
+        .thenReturn(Map.of("key1", accessToken1));
+    NearCacheAccessTokenCache cache = new NearCacheAccessTokenCache(
+        delegate, 10, Duration.ofMinutes(1L), null);
+    cache.putAccessToken("key0", accessToken0);
+
+    Map<String, String> actual = cache.findAccessTokens(List.of("key0", "key1", "key2"));
+    assertEquals(Map.of("key0", accessToken0, "key1", accessToken1), actual);
+    assertEquals(Optional.of(accessToken1), cache.findAccessToken("key1"));
+    verify(delegate, times(0)).findAccessToken("key1");
+  }
+
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The prefetching jwk source test.
+ *
+ * @author Christian Bremer
+ */
+class PrefetchingJwkSourceTest {
+
+  private final AtomicReference<JWKSet> publishedJwkSet = new AtomicReference<>();
+
+  private final AtomicInteger requestCount = new AtomicInteger();
+
+  private final AtomicInteger responseStatus = new AtomicInteger(200);
+
+  private final AtomicReference<CountDownLatch> responseGate
+      = new AtomicReference<>(new CountDownLatch(0));
+
+  private HttpServer server;
+
+  private String jwkSetUri;
+
+  /**
+   * Start http stub.
+   *
+   * @throws Exception the exception
+   */
+  @BeforeEach
+  void startHttpStub() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/jwks", exchange -> {
+      requestCount.incrementAndGet();
+      try {
+        responseGate.get().await(10L, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      byte[] body = publishedJwkSet.get().toString().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(responseStatus.get(), body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    jwkSetUri = "http://127.0.0.1:" + server.getAddress().getPort() + "/jwks";
+  }
+
+  /**
+   * Stop http stub.
+   */
+  @AfterEach
+  void stopHttpStub() {
+    responseGate.get().countDown();
+    server.stop(0);
+  }
+
+  private static RSAKey createKey(String keyId) throws Exception {
+    return new RSAKeyGenerator(2048).keyID(keyId).generate();
+  }
+
+  private static JWKSelector selector(String keyId) {
+    return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+  }
+
+  /**
+   * Load at startup.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void loadAtStartup() throws Exception {
+    publishedJwkSet.set(new JWKSet(createKey("k1")));
+    PrefetchingJwkSource jwkSource = new PrefetchingJwkSource(
+        jwkSetUri, null, Duration.ofMinutes(5L), Duration.ofSeconds(30L));
+    try {
+      jwkSource.start();
+      assertEquals(1, requestCount.get());
+
+      List<JWK> keys = jwkSource.get(selector("k1"), null);
+      assertEquals(1, keys.size());
+      assertEquals("k1", keys.get(0).getKeyID());
+      assertEquals(1, requestCount.get());
+
+    } finally {
+      jwkSource.destroy();
+    }
+  }
+
+  /**
+   * Refresh in background.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void refreshInBackground() throws Exception {
+    publishedJwkSet.set(new JWKSet(createKey("k1")));
+    PrefetchingJwkSource jwkSource = new PrefetchingJwkSource(
+        jwkSetUri, null, Duration.ofMillis(50L), Duration.ofMinutes(1L));
+    try {
+      jwkSource.start();
+      publishedJwkSet.set(new JWKSet(createKey("k2")));
+      long deadline = System.currentTimeMillis() + 5000L;
+      while (jwkSource.getJwkSet().getKeyByKeyId("k2") == null
+          && System.currentTimeMillis() < deadline) {
+        Thread.sleep(20L);
+      }
+      assertEquals("k2", jwkSource.getJwkSet().getKeys().get(0).getKeyID());
+
+    } finally {
+      jwkSource.destroy();
+    }
+  }
+
+  /**
+   * Keep stale keys on failure.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void keepStaleKeysOnFailure() throws Exception {
+    publishedJwkSet.set(new JWKSet(createKey("k1")));
+    PrefetchingJwkSource jwkSource = new PrefetchingJwkSource(
+        jwkSetUri, null, Duration.ofMinutes(5L), Duration.ofSeconds(30L));
+    try {
+      jwkSource.start();
+      responseStatus.set(500);
+      assertFalse(jwkSource.refresh());
+      assertEquals(1, jwkSource.get(selector("k1"), null).size());
+
+    } finally {
+      jwkSource.destroy();
+    }
+  }
+
+  /**
+   * Rate limit unknown key id.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void rateLimitUnknownKeyId() throws Exception {
+    publishedJwkSet.set(new JWKSet(createKey("k1")));
+    PrefetchingJwkSource jwkSource = new PrefetchingJwkSource(
+        jwkSetUri, null, Duration.ofMinutes(5L), Duration.ofMinutes(1L));
+    try {
+      jwkSource.start();
+      assertEquals(1, requestCount.get());
+
+      publishedJwkSet.set(new JWKSet(List.of(createKey("k1"), createKey("k2"))));
+      assertEquals(1, jwkSource.get(selector("k2"), null).size());
+      assertEquals(2, requestCount.get());
+
+      assertTrue(jwkSource.get(selector("unknown"), null).isEmpty());
+      assertTrue(jwkSource.get(selector("unknown"), null).isEmpty());
+      assertEquals(2, requestCount.get());
+
+    } finally {
+      jwkSource.destroy();
+    }
+  }
+
+  /**
+   * Share refresh in flight.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void shareRefreshInFlight() throws Exception {
+    publishedJwkSet.set(new JWKSet(createKey("k1")));
+    PrefetchingJwkSource jwkSource = new PrefetchingJwkSource(
+        jwkSetUri, null, Duration.ofMinutes(5L), Duration.ofMinutes(1L), Duration.ofSeconds(5L));
+    try {
+      jwkSource.start();
+      publishedJwkSet.set(new JWKSet(List.of(createKey("k1"), createKey("k2"))));
+      responseGate.set(new CountDownLatch(1));
+
+      CompletableFuture<List<JWK>> first = CompletableFuture
+          .supplyAsync(() -> getKeys(jwkSource, "k2"));
+      awaitRequestCount(2);
+      CompletableFuture<List<JWK>> second = CompletableFuture
+          .supplyAsync(() -> getKeys(jwkSource, "k2"));
+      responseGate.get().countDown();
+
+      assertEquals(1, first.get(5L, TimeUnit.SECONDS).size());
+      assertEquals(1, second.get(5L, TimeUnit.SECONDS).size());
+      assertEquals(2, requestCount.get());
+
+    } finally {
+      jwkSource.destroy();
+    }
+  }
+
+  /**
+   * Wait for refresh in flight is bounded.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void waitForRefreshInFlightIsBounded() throws Exception {
+    publishedJwkSet.set(new JWKSet(createKey("k1")));
+    PrefetchingJwkSource jwkSource = new PrefetchingJwkSource(
+        jwkSetUri, null, Duration.ofMinutes(5L), Duration.ofMinutes(1L), Duration.ofMillis(100L));
+    try {
+      jwkSource.start();
+      responseGate.set(new CountDownLatch(1));
+
+      // the background refresh is running
+      CompletableFuture<Boolean> refresh = CompletableFuture.supplyAsync(jwkSource::refresh);
+      awaitRequestCount(2);
+
+      long start = System.currentTimeMillis();
+      assertTrue(jwkSource.get(selector("k2"), null).isEmpty());
+      assertTrue(System.currentTimeMillis() - start < 5000L);
+      assertEquals(1, jwkSource.get(selector("k1"), null).size());
+
+      responseGate.get().countDown();
+      assertTrue(refresh.get(5L, TimeUnit.SECONDS));
+      assertEquals(2, requestCount.get());
+
+    } finally {
+      jwkSource.destroy();
+    }
+  }
+
+  private static List<JWK> getKeys(PrefetchingJwkSource jwkSource, String keyId) {
+    try {
+      return jwkSource.get(selector(keyId), null);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void awaitRequestCount(int expected) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000L;
+    while (requestCount.get() < expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertEquals(expected, requestCount.get());
+  }
+
+}
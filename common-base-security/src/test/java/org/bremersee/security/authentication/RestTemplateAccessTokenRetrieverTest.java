@@ -24,6 +24,14 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bremersee.exception.AccessTokenRetrieverAuthenticationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpEntity;
@@ -89,4 +97,48 @@ class RestTemplateAccessTokenRetrieverTest {
         () -> tokenRetriever.retrieveAccessToken(properties));
   }
 
-}
\ No newline at end of file
+  /**
+   * Retrieve access token concurrently.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void retrieveAccessTokenConcurrently() throws Exception {
+    AtomicInteger requests = new AtomicInteger();
+    CountDownLatch latch = new CountDownLatch(1);
+    RestTemplate restTemplate = mock(RestTemplate.class);
+    //noinspection unchecked
+    when(restTemplate.exchange(
+        anyString(), any(HttpMethod.class), any(HttpEntity.class), any(Class.class)))
+        .thenAnswer(invocation -> {
+          requests.incrementAndGet();
+          latch.await(5L, TimeUnit.SECONDS);
+          return ResponseEntity.ok("{\"access_token\":\"junit_access_token_value\"}");
+        });
+    RestTemplateAccessTokenRetriever tokenRetriever = new RestTemplateAccessTokenRetriever(
+        restTemplate);
+
+    ClientCredentialsFlowProperties properties = ClientCredentialsFlowProperties.builder()
+        .tokenEndpoint("http://localhost/token")
+        .clientId("123")
+        .clientSecret("456")
+        .build();
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(executor.submit(() -> tokenRetriever.retrieveAccessToken(properties)));
+      }
+      Thread.sleep(200L);
+      latch.countDown();
+      for (Future<String> result : results) {
+        assertEquals("junit_access_token_value", result.get(5L, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, requests.get());
+  }
+
+}
@@ -18,6 +18,7 @@ package org.bremersee.security.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -25,15 +26,19 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * The authenticated user context caller test.
@@ -153,6 +158,30 @@ class AuthenticatedUserContextCallerTest {
     assertEquals(expected, actual);
   }
 
+  /**
+   * Call with user context in request.
+   */
+  @Test
+  void callWithUserContextInRequest() {
+    AtomicInteger groupsCalls = new AtomicInteger();
+    UserContextCaller caller = new UserContextCaller(auth -> {
+      groupsCalls.incrementAndGet();
+      return Collections.singleton(group);
+    });
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
+    try {
+      UserContext first = caller.callWithRequiredUserContext(userContext -> userContext);
+      UserContext second = caller.callWithOptionalUserContext(userContext -> userContext);
+      assertEquals(expected, first);
+      assertSame(first, second);
+      assertEquals(1, groupsCalls.get());
+
+    } finally {
+      RequestContextHolder.resetRequestAttributes();
+    }
+  }
+
   private UserContext serviceMethod(UserContext userContext, Object arg) {
     assertNotNull(arg);
     return userContext;
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+
+/**
+ * The caching groups resolver test.
+ *
+ * @author Christian Bremer
+ */
+class CachingGroupsResolverTest {
+
+  private static Authentication authentication(String name) {
+    Authentication authentication = mock(Authentication.class);
+    when(authentication.getName()).thenReturn(name);
+    return authentication;
+  }
+
+  /**
+   * Apply.
+   */
+  @Test
+  void apply() {
+    AtomicInteger calls = new AtomicInteger();
+    CachingGroupsResolver resolver = new CachingGroupsResolver(
+        auth -> {
+          calls.incrementAndGet();
+          return Set.of("group-of-" + auth.getName());
+        },
+        10, Duration.ofMinutes(1L), null, Runnable::run);
+
+    assertEquals(Set.of("group-of-anna"), resolver.apply(authentication("anna")));
+    assertEquals(Set.of("group-of-anna"), resolver.apply(authentication("anna")));
+    assertEquals(Set.of("group-of-livia"), resolver.apply(authentication("livia")));
+    assertEquals(2, calls.get());
+  }
+
+  /**
+   * Refresh in background.
+   */
+  @Test
+  void refreshInBackground() {
+    AtomicInteger calls = new AtomicInteger();
+    CachingGroupsResolver resolver = new CachingGroupsResolver(
+        auth -> Set.of("group" + calls.incrementAndGet()),
+        10, Duration.ofMinutes(1L), Duration.ZERO, Runnable::run);
+
+    assertEquals(Set.of("group1"), resolver.apply(authentication("anna")));
+    // the stale groups are returned, the executor reloads them
+    assertEquals(Set.of("group1"), resolver.apply(authentication("anna")));
+    assertEquals(Set.of("group2"), resolver.apply(authentication("anna")));
+  }
+
+  /**
+   * Keep groups if refresh fails.
+   */
+  @Test
+  void keepGroupsIfRefreshFails() {
+    AtomicInteger calls = new AtomicInteger();
+    CachingGroupsResolver resolver = new CachingGroupsResolver(
+        auth -> {
+          if (calls.incrementAndGet() > 1) {
+            throw new IllegalStateException("Lookup failed.");
+          }
+          return Set.of("group");
+        },
+        10, Duration.ofMinutes(1L), Duration.ZERO, Runnable::run);
+
+    assertEquals(Set.of("group"), resolver.apply(authentication("anna")));
+    assertEquals(Set.of("group"), resolver.apply(authentication("anna")));
+    assertEquals(Set.of("group"), resolver.apply(authentication("anna")));
+  }
+
+  /**
+   * Lookup fails.
+   */
+  @Test
+  void lookupFails() {
+    CachingGroupsResolver resolver = new CachingGroupsResolver(
+        auth -> {
+          throw new IllegalStateException("Lookup failed.");
+        },
+        10, null, null, null);
+    assertThrows(IllegalStateException.class, () -> resolver.apply(authentication("anna")));
+    resolver.destroy();
+  }
+
+  /**
+   * Apply concurrently.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void applyConcurrently() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    CachingGroupsResolver resolver = new CachingGroupsResolver(
+        auth -> {
+          calls.incrementAndGet();
+          try {
+            latch.await(5L, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return Set.of("group");
+        },
+        10, Duration.ofMinutes(1L), null, Runnable::run);
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      List<Future<Set<String>>> results = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        results.add(executor.submit(() -> resolver.apply(authentication("anna"))));
+      }
+      Thread.sleep(100L);
+      latch.countDown();
+      for (Future<Set<String>> result : results) {
+        assertEquals(Set.of("group"), result.get(5L, TimeUnit.SECONDS));
+      }
+      assertEquals(1, calls.get());
+
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+}
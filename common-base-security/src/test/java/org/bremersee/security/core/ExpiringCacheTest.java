@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The expiring cache test.
+ *
+ * @author Christian Bremer
+ */
+class ExpiringCacheTest {
+
+  /**
+   * Put and get.
+   */
+  @Test
+  void putAndGet() {
+    ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+    long now = System.currentTimeMillis();
+    cache.put("a", "1", now + 60000L);
+    cache.put("b", "2", now - 1L);
+    assertEquals("1", cache.get("a"));
+    assertNull(cache.get("b"));
+    assertEquals(1, cache.size());
+
+    cache.remove("a");
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.size());
+  }
+
+  /**
+   * Put expired value removes existing value.
+   */
+  @Test
+  void putExpiredValueRemovesExistingValue() {
+    ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+    long now = System.currentTimeMillis();
+    cache.put("a", "1", now + 60000L);
+    cache.put("a", "2", now - 1L);
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.size());
+  }
+
+  /**
+   * Evict entries that expire first.
+   */
+  @Test
+  void evictEntriesThatExpireFirst() {
+    ExpiringCache<String, String> cache = new ExpiringCache<>(2);
+    long now = System.currentTimeMillis();
+    cache.put("a", "1", now + 30000L);
+    cache.put("b", "2", now + 10000L);
+    cache.put("c", "3", now + 20000L);
+    assertEquals(2, cache.size());
+    assertEquals("1", cache.get("a"));
+    assertNull(cache.get("b"));
+    assertEquals("3", cache.get("c"));
+
+    cache.put("a", "4", now + 5000L);
+    cache.put("d", "5", now + 40000L);
+    assertNull(cache.get("a"));
+    assertEquals("3", cache.get("c"));
+    assertEquals("5", cache.get("d"));
+
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  /**
+   * Statistics.
+   */
+  @Test
+  void statistics() {
+    ExpiringCache<String, String> cache = new ExpiringCache<>(1);
+    long now = System.currentTimeMillis();
+    cache.put("a", "1", now + 30000L);
+    assertEquals("1", cache.get("a"));
+    assertNull(cache.get("b"));
+    cache.put("b", "2", now + 40000L);
+    assertNull(cache.get("a"));
+    assertEquals(1L, cache.getHitCount());
+    assertEquals(2L, cache.getMissCount());
+    assertEquals(1L, cache.getEvictionCount());
+  }
+
+  /**
+   * Illegal maximum size.
+   */
+  @Test
+  void illegalMaximumSize() {
+    assertThrows(IllegalArgumentException.class, () -> new ExpiringCache<>(0));
+  }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * The role sets test.
+ *
+ * @author Christian Bremer
+ */
+class RoleSetsTest {
+
+  /**
+   * Intern.
+   */
+  @Test
+  void intern() {
+    String role = UUID.randomUUID().toString();
+    Set<String> roles = RoleSets.intern(Arrays.asList(role, "ROLE_USER", role));
+    assertEquals(Set.of(role, "ROLE_USER"), roles);
+    assertSame(roles, RoleSets.intern(Set.of("ROLE_USER", role)));
+    assertSame(roles, RoleSets.fromAuthorities(List.of(
+        new SimpleGrantedAuthority("ROLE_USER"),
+        new SimpleGrantedAuthority(role))));
+    assertThrows(UnsupportedOperationException.class, () -> roles.add("ROLE_ADMIN"));
+  }
+
+  /**
+   * Intern empty.
+   */
+  @Test
+  void internEmpty() {
+    assertTrue(RoleSets.intern(null).isEmpty());
+    assertTrue(RoleSets.intern(List.of()).isEmpty());
+    assertTrue(RoleSets.fromAuthorities(null).isEmpty());
+  }
+
+}
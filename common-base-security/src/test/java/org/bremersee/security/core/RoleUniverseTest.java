@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The role universe test.
+ *
+ * @author Christian Bremer
+ */
+class RoleUniverseTest {
+
+  /**
+   * Mask.
+   */
+  @Test
+  void mask() {
+    RoleUniverse universe = RoleUniverse.of("ROLE_ADMIN", "ROLE_USER", "ROLE_GUEST");
+    assertEquals(3, universe.size());
+
+    RoleUniverse.Mask mask = universe.mask("ROLE_USER", "ROLE_UNKNOWN");
+    assertTrue(mask.contains("ROLE_USER"));
+    assertFalse(mask.contains("ROLE_ADMIN"));
+    assertFalse(mask.contains("ROLE_UNKNOWN"));
+    assertEquals(Set.of("ROLE_USER"), mask.getRoles());
+    assertEquals(universe.mask(List.of("ROLE_USER")), mask);
+    assertTrue(universe.mask().isEmpty());
+
+    assertTrue(mask.intersects(universe.mask("ROLE_ADMIN", "ROLE_USER")));
+    assertFalse(mask.intersects(universe.mask("ROLE_ADMIN", "ROLE_GUEST")));
+    assertFalse(mask.intersects(null));
+  }
+
+  /**
+   * Mask with many roles.
+   */
+  @Test
+  void maskWithManyRoles() {
+    List<String> roles = IntStream.range(0, 200)
+        .mapToObj(i -> "ROLE_" + i)
+        .collect(Collectors.toList());
+    RoleUniverse universe = RoleUniverse.of(roles);
+    RoleUniverse.Mask mask = universe.mask("ROLE_1", "ROLE_150");
+    assertTrue(mask.contains("ROLE_150"));
+    assertFalse(mask.contains("ROLE_149"));
+    assertTrue(mask.intersects(universe.mask("ROLE_150", "ROLE_199")));
+    assertFalse(mask.intersects(universe.mask("ROLE_64", "ROLE_199")));
+  }
+
+  /**
+   * Intersects with other universe.
+   */
+  @Test
+  void intersectsWithOtherUniverse() {
+    RoleUniverse.Mask mask = RoleUniverse.of("ROLE_USER").mask("ROLE_USER");
+    RoleUniverse.Mask other = RoleUniverse.of("ROLE_USER").mask("ROLE_USER");
+    assertThrows(IllegalArgumentException.class, () -> mask.intersects(other));
+  }
+
+}
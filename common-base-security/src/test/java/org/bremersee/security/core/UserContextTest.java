@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -157,6 +158,24 @@ class UserContextTest {
     assertTrue(actual.isInAnyGroup(Arrays.asList("456", group)));
   }
 
+  /**
+   * Has any role of mask.
+   */
+  @Test
+  void hasAnyRoleOfMask() {
+    RoleUniverse universe = RoleUniverse.of("ROLE_ADMIN", "ROLE_USER", "ROLE_GUEST");
+    RoleUniverse.Mask adminOrUser = universe.mask("ROLE_ADMIN", "ROLE_USER");
+    UserContext actual = UserContext.newInstance(
+        UUID.randomUUID().toString(), Arrays.asList("ROLE_USER", "ROLE_OTHER"), null);
+    assertTrue(actual.hasAnyRole(adminOrUser));
+    assertSame(actual.getRoleMask(universe), actual.getRoleMask(universe));
+    assertFalse(actual.hasAnyRole(universe.mask("ROLE_GUEST")));
+    assertFalse(actual.hasAnyRole((RoleUniverse.Mask) null));
+
+    UserContext lambda = () -> "anna";
+    assertFalse(lambda.hasAnyRole(adminOrUser));
+  }
+
   /**
    * With lambda.
    */
@@ -16,7 +16,6 @@
 
 package org.bremersee.security;
 
-import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.Optional;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -52,7 +51,6 @@ public class ReactiveIpAddressMatcher extends IpAddressMatcher implements Server
         .map(ServerWebExchange::getRequest)
         .map(ServerHttpRequest::getRemoteAddress)
         .map(InetSocketAddress::getAddress)
-        .map(InetAddress::getHostAddress)
         .map(this::matches)
         .orElse(false);
   }
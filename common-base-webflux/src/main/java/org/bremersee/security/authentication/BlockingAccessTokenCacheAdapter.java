@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A reactive access token cache, that calls a blocking {@link AccessTokenCache} (for example one
+ * with an external JCache or Hazelcast cache) on a scheduler for blocking tasks instead of the
+ * event loop. Concurrent lookups of the same key share one call of the blocking cache.
+ *
+ * <p>If the {@link Schedulers#immediate() immediate scheduler} is given, the cache is not
+ * offloaded, but called on the calling thread. This should only be done with a cache, that does
+ * not block (like the internal in memory cache).
+ *
+ * <p>The time spent in the blocking cache is measured on the thread, that calls it. The part of
+ * it, that was spent on a non-blocking thread (an event loop), should stay zero, if the cache is
+ * offloaded. Otherwise it is the time, the event loop spent in the cache.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public class BlockingAccessTokenCacheAdapter implements ReactiveAccessTokenCache {
+
+  private final AccessTokenCache accessTokenCache;
+
+  private final Scheduler scheduler;
+
+  private final boolean offloaded;
+
+  private final ConcurrentMap<String, Mono<String>> inFlightLookups = new ConcurrentHashMap<>();
+
+  private final LongAdder blockingCallCount = new LongAdder();
+
+  private final LongAdder blockingTimeNanos = new LongAdder();
+
+  private final LongAdder eventLoopBlockingTimeNanos = new LongAdder();
+
+  /**
+   * Instantiates a new blocking access token cache adapter.
+   *
+   * @param accessTokenCache the blocking access token cache
+   * @param scheduler the scheduler for the blocking calls (can be {@code null}, then the bounded
+   *     elastic scheduler is used; if it is the immediate scheduler, the calls are not offloaded)
+   */
+  public BlockingAccessTokenCacheAdapter(AccessTokenCache accessTokenCache, Scheduler scheduler) {
+    Assert.notNull(accessTokenCache, "Access token cache must be present.");
+    this.accessTokenCache = accessTokenCache;
+    this.scheduler = scheduler != null ? scheduler : Schedulers.boundedElastic();
+    this.offloaded = this.scheduler != Schedulers.immediate();
+  }
+
+  /**
+   * Determines whether the calls of the cache are offloaded to the scheduler.
+   *
+   * @return {@code true} if the calls are offloaded, otherwise {@code false}
+   */
+  public boolean isOffloaded() {
+    return offloaded;
+  }
+
+  /**
+   * Gets the number of calls of the blocking cache.
+   *
+   * @return the blocking call count
+   */
+  public long getBlockingCallCount() {
+    return blockingCallCount.sum();
+  }
+
+  /**
+   * Gets the total time in nanoseconds, that was spent in the blocking cache.
+   *
+   * @return the blocking time in nanoseconds
+   */
+  public long getBlockingTimeNanos() {
+    return blockingTimeNanos.sum();
+  }
+
+  /**
+   * Gets the total time in nanoseconds, that was spent in the blocking cache on a non-blocking
+   * thread (an event loop).
+   *
+   * @return the event loop blocking time in nanoseconds
+   */
+  public long getEventLoopBlockingTimeNanos() {
+    return eventLoopBlockingTimeNanos.sum();
+  }
+
+  @Override
+  public Mono<String> findAccessToken(String key) {
+    return Mono.defer(() -> inFlightLookups.computeIfAbsent(key, k -> Mono
+        .fromCallable(() -> measure(() -> accessTokenCache.findAccessToken(k).orElse(null)))
+        .subscribeOn(scheduler)
+        .doFinally(signalType -> inFlightLookups.remove(k))
+        .cache()));
+  }
+
+  @Override
+  public Mono<Map<String, String>> findAccessTokens(Collection<String> keys) {
+    return Mono
+        .fromCallable(() -> measure(() -> accessTokenCache.findAccessTokens(keys)))
+        .subscribeOn(scheduler);
+  }
+
+  @Override
+  public Mono<String> putAccessToken(String key, String accessToken) {
+    return Mono
+        .fromCallable(() -> measure(() -> {
+          accessTokenCache.putAccessToken(key, accessToken);
+          return accessToken;
+        }))
+        .subscribeOn(scheduler);
+  }
+
+  @Override
+  public Mono<String> putAccessToken(String key, String accessToken, Mono<String> refreshMono) {
+    return Mono
+        .fromCallable(() -> measure(() -> {
+          accessTokenCache.putAccessToken(key, accessToken,
+              refreshMono != null ? refreshMono::block : null);
+          return accessToken;
+        }))
+        .subscribeOn(scheduler);
+  }
+
+  private <T> T measure(Supplier<T> blockingCall) {
+    long start = System.nanoTime();
+    try {
+      return blockingCall.get();
+    } finally {
+      long duration = System.nanoTime() - start;
+      blockingCallCount.increment();
+      blockingTimeNanos.add(duration);
+      if (Schedulers.isInNonBlockingThread()) {
+        eventLoopBlockingTimeNanos.add(duration);
+        if (offloaded) {
+          log.warn("Blocking access token cache was called on a non-blocking thread ({} ns).",
+              duration);
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "BlockingAccessTokenCacheAdapter {accessTokenCache = " + accessTokenCache
+        + ", scheduler = " + scheduler
+        + ", offloaded = " + offloaded
+        + '}';
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.ToString;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * An access token provider, that keeps the last retrieved access token in memory until it
+ * expires. Only one access token is retrieved at the same time, concurrent callers share the
+ * result.
+ *
+ * @author Christian Bremer
+ */
+@ToString(of = {"properties", "expirationTimeThreshold"})
+public class CachingReactiveAccessTokenProvider implements AccessTokenProvider<Mono<String>> {
+
+  private final AccessTokenRetriever<Mono<String>> retriever;
+
+  private final AccessTokenRetrieverProperties properties;
+
+  private final Duration expirationTimeThreshold;
+
+  private final AtomicReference<AccessTokenCacheEntry> currentEntry = new AtomicReference<>();
+
+  private final AtomicReference<Mono<String>> inFlightRequest = new AtomicReference<>();
+
+  /**
+   * Instantiates a new caching reactive access token provider.
+   *
+   * @param retriever the retriever
+   * @param properties the properties
+   * @param expirationTimeThreshold the expiration time threshold (can be {@code null})
+   */
+  public CachingReactiveAccessTokenProvider(
+      AccessTokenRetriever<Mono<String>> retriever,
+      AccessTokenRetrieverProperties properties,
+      Duration expirationTimeThreshold) {
+    Assert.notNull(retriever, "Access token retriever must be present.");
+    Assert.notNull(properties, "Access token retriever properties must be present.");
+    this.retriever = retriever;
+    this.properties = properties;
+    this.expirationTimeThreshold = Objects
+        .requireNonNullElseGet(expirationTimeThreshold, () -> Duration.ofSeconds(20L));
+  }
+
+  @Override
+  public Mono<String> getAccessToken() {
+    return Mono.defer(() -> {
+      AccessTokenCacheEntry entry = currentEntry.get();
+      if (entry != null && !entry.isExpired(expirationTimeThreshold)) {
+        return Mono.just(entry.getAccessToken());
+      }
+      return retrieveAccessToken();
+    });
+  }
+
+  private Mono<String> retrieveAccessToken() {
+    Mono<String> request = inFlightRequest.get();
+    if (request != null) {
+      return request;
+    }
+    Mono<String> newRequest = retriever.retrieveAccessToken(properties)
+        .doOnNext(accessToken -> currentEntry.set(AccessTokenCacheEntry.of(accessToken)))
+        .doFinally(signalType -> inFlightRequest.set(null))
+        .cache();
+    if (inFlightRequest.compareAndSet(null, newRequest)) {
+      return newRequest;
+    }
+    return Objects.requireNonNullElse(inFlightRequest.get(), newRequest);
+  }
+
+}
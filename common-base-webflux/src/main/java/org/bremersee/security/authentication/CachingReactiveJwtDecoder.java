@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.time.Instant;
+import lombok.ToString;
+import org.bremersee.security.core.ExpiringCache;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * A reactive jwt decoder, that keeps successfully decoded and verified tokens in a bounded cache
+ * until they expire. So the signature of a token, that is used again, must not be verified again.
+ * Tokens without expiration time are not cached.
+ *
+ * @author Christian Bremer
+ */
+@ToString(of = {"delegate", "cache"})
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+  private final ReactiveJwtDecoder delegate;
+
+  private final ExpiringCache<String, Jwt> cache;
+
+  /**
+   * Instantiates a new caching reactive jwt decoder.
+   *
+   * @param delegate the reactive jwt decoder, that verifies the tokens
+   * @param maximumSize the maximum number of cached tokens
+   */
+  public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, int maximumSize) {
+    Assert.notNull(delegate, "Reactive jwt decoder must be present.");
+    this.delegate = delegate;
+    this.cache = new ExpiringCache<>(maximumSize);
+  }
+
+  /**
+   * Gets the cache.
+   *
+   * @return the cache
+   */
+  public ExpiringCache<String, Jwt> getCache() {
+    return cache;
+  }
+
+  @Override
+  public Mono<Jwt> decode(String token) throws JwtException {
+    return Mono.defer(() -> {
+      Jwt jwt = cache.get(token);
+      if (jwt != null) {
+        return Mono.just(jwt);
+      }
+      return delegate.decode(token)
+          .doOnNext(decodedJwt -> {
+            Instant expiresAt = decodedJwt.getExpiresAt();
+            if (expiresAt != null) {
+              cache.put(decodedJwt.getTokenValue(), decodedJwt, expiresAt.toEpochMilli());
+            }
+          });
+    });
+  }
+
+}
@@ -16,18 +16,17 @@
 
 package org.bremersee.security.authentication;
 
+import java.net.InetSocketAddress;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
-import org.bremersee.security.ReactiveIpAddressMatcher;
+import org.bremersee.security.IpAddressRangeSet;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.authorization.AuthenticatedReactiveAuthorizationManager;
 import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authorization.ReactiveAuthorizationManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 /**
@@ -38,7 +37,7 @@ import reactor.core.publisher.Mono;
 public class IpBasedAuthorizationManager
     implements ReactiveAuthorizationManager<AuthorizationContext> {
 
-  private final Set<String> ipAddresses;
+  private final IpAddressRangeSet ipAddresses;
 
   private final boolean withAuthenticatedFallback;
 
@@ -61,11 +60,7 @@ public class IpBasedAuthorizationManager
   public IpBasedAuthorizationManager(
       Collection<String> ipAddresses,
       boolean withAuthenticatedFallback) {
-    this.ipAddresses = Optional.ofNullable(ipAddresses)
-        .map(col -> col.stream()
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet()))
-        .orElseGet(Collections::emptySet);
+    this.ipAddresses = IpAddressRangeSet.compile(ipAddresses);
     this.withAuthenticatedFallback = withAuthenticatedFallback;
   }
 
@@ -88,9 +83,15 @@ public class IpBasedAuthorizationManager
   }
 
   private boolean isWhiteListedIp(AuthorizationContext context) {
-    return ipAddresses.stream()
-        .anyMatch(ip -> new ReactiveIpAddressMatcher(ip)
-            .matchesRemoteAddress(context.getExchange()));
+    if (ipAddresses.isEmpty()) {
+      return false;
+    }
+    return Optional.ofNullable(context.getExchange())
+        .map(ServerWebExchange::getRequest)
+        .map(ServerHttpRequest::getRemoteAddress)
+        .map(InetSocketAddress::getAddress)
+        .map(ipAddresses::matches)
+        .orElse(false);
   }
 
 }
@@ -16,9 +16,17 @@
 
 package org.bremersee.security.authentication;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.validation.constraints.NotNull;
 import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 /**
  * The reactive access token cache interface.
@@ -42,6 +50,19 @@ public interface ReactiveAccessTokenCache {
    */
   Mono<String> findAccessToken(@NotNull String key);
 
+  /**
+   * Find not expired access tokens of the given keys from cache. Implementations may fetch all
+   * keys with one request.
+   *
+   * @param keys the keys
+   * @return the found access tokens mapped by their keys
+   */
+  default Mono<Map<String, String>> findAccessTokens(@NotNull Collection<String> keys) {
+    return Flux.fromIterable(keys)
+        .concatMap(key -> findAccessToken(key).map(accessToken -> Tuples.of(key, accessToken)))
+        .collectMap(Tuple2::getT1, Tuple2::getT2, LinkedHashMap::new);
+  }
+
   /**
    * Put new access token into the cache.
    *
@@ -52,29 +73,48 @@ public interface ReactiveAccessTokenCache {
   Mono<String> putAccessToken(@NotNull String key, @NotNull String accessToken);
 
   /**
-   * Creates a reactive cache from the given access token cache.
+   * Put new access token into the cache. If the cache supports refresh ahead, it will subscribe to
+   * the given refresh publisher to renew the access token in the background before it expires.
+   *
+   * @param key the key
+   * @param accessToken the access token
+   * @param refreshMono the publisher that retrieves a new access token from the identity provider
+   *     without using the cache
+   * @return the access token
+   */
+  default Mono<String> putAccessToken(
+      @NotNull String key,
+      @NotNull String accessToken,
+      Mono<String> refreshMono) {
+    return putAccessToken(key, accessToken);
+  }
+
+  /**
+   * Creates a reactive cache from the given blocking access token cache. The blocking cache is
+   * called on the given scheduler, so that the event loop is not blocked.
+   *
+   * @param accessTokenCache the blocking access token cache
+   * @param scheduler the scheduler (can be {@code null}, then the bounded elastic scheduler is
+   *     used)
+   * @return the reactive access token cache
+   */
+  static ReactiveAccessTokenCache fromBlocking(
+      @NotNull AccessTokenCache accessTokenCache,
+      Scheduler scheduler) {
+    return new BlockingAccessTokenCacheAdapter(accessTokenCache, scheduler);
+  }
+
+  /**
+   * Creates a reactive cache from the given access token cache. The access token cache is called
+   * directly on the calling thread, so it should not block (like the internal in memory cache).
+   * Otherwise use {@link #fromBlocking(AccessTokenCache, Scheduler)}. The time spent in the cache
+   * is measured anyway, so that the time an event loop spent in it can be seen.
    *
    * @param accessTokenCache the access token cache
    * @return the reactive access token cache
    */
   static ReactiveAccessTokenCache from(@NotNull AccessTokenCache accessTokenCache) {
-    return new ReactiveAccessTokenCache() {
-      @Override
-      public Mono<String> findAccessToken(@NotNull String key) {
-        return accessTokenCache.findAccessToken(key).map(Mono::just).orElse(Mono.empty());
-      }
-
-      @Override
-      public Mono<String> putAccessToken(@NotNull String key, @NotNull String accessToken) {
-        accessTokenCache.putAccessToken(key, accessToken);
-        return Mono.just(accessToken);
-      }
-
-      @Override
-      public String toString() {
-        return "Reactive wrapper of " + accessTokenCache;
-      }
-    };
+    return new BlockingAccessTokenCacheAdapter(accessTokenCache, Schedulers.immediate());
   }
 
 }
@@ -44,14 +44,46 @@ public interface ReactiveAccessTokenProviders {
   }
 
   /**
-   * Provider that retrieves the access token from an OpenId server.
+   * Provider that retrieves the access token from an OpenId server. The access token is kept in
+   * memory until it expires.
+   *
+   * @param properties the properties
+   * @return the access token provider
+   */
+  static AccessTokenProvider<Mono<String>> withAccessTokenRetriever(
+      final AccessTokenRetrieverProperties properties) {
+    return withAccessTokenRetriever(properties, null);
+  }
+
+  /**
+   * Provider that retrieves the access token from an OpenId server. The access token is kept in
+   * memory until it expires. If an access token cache is given, it will be used by the retriever,
+   * too.
    *
    * @param properties the properties
+   * @param accessTokenCache the access token cache (can be {@code null})
    * @return the access token provider
    */
   static AccessTokenProvider<Mono<String>> withAccessTokenRetriever(
+      final AccessTokenRetrieverProperties properties,
+      final ReactiveAccessTokenCache accessTokenCache) {
+    return withCachedAccessToken(
+        new WebClientAccessTokenRetriever(accessTokenCache),
+        properties);
+  }
+
+  /**
+   * Provider that retrieves the access token from an OpenId server with the given retriever and
+   * keeps it in memory until it expires.
+   *
+   * @param retriever the retriever
+   * @param properties the properties
+   * @return the access token provider
+   */
+  static AccessTokenProvider<Mono<String>> withCachedAccessToken(
+      final AccessTokenRetriever<Mono<String>> retriever,
       final AccessTokenRetrieverProperties properties) {
-    return withAccessTokenRetriever(new WebClientAccessTokenRetriever(), properties);
+    return new CachingReactiveAccessTokenProvider(retriever, properties, null);
   }
 
   /**
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.bremersee.security.core.ExpiringCache;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * A two level reactive access token cache. A small in memory cache (the near cache) is used in
+ * front of another reactive access token cache (for example a redis cache), so that an access
+ * token, that was read recently, doesn't need a network round trip. The entries of the near cache
+ * live at most for the given time to live and never longer than the access token is valid.
+ *
+ * @author Christian Bremer
+ */
+public class ReactiveNearCacheAccessTokenCache implements ReactiveAccessTokenCache, DisposableBean {
+
+  private final ReactiveAccessTokenCache delegate;
+
+  private final ExpiringCache<String, String> nearCache;
+
+  private final Duration timeToLive;
+
+  private final Duration expirationTimeThreshold;
+
+  /**
+   * Instantiates a new reactive near cache access token cache.
+   *
+   * @param delegate the reactive access token cache behind the near cache
+   * @param maximumSize the maximum size of the near cache
+   * @param timeToLive the maximum time to live of the near cache entries
+   * @param expirationTimeThreshold the expiration time threshold (can be {@code null})
+   */
+  public ReactiveNearCacheAccessTokenCache(
+      ReactiveAccessTokenCache delegate,
+      int maximumSize,
+      Duration timeToLive,
+      Duration expirationTimeThreshold) {
+    Assert.notNull(delegate, "Reactive access token cache must be present.");
+    Assert.notNull(timeToLive, "Time to live must be present.");
+    this.delegate = delegate;
+    this.nearCache = new ExpiringCache<>(maximumSize);
+    this.timeToLive = timeToLive;
+    this.expirationTimeThreshold = Objects
+        .requireNonNullElseGet(expirationTimeThreshold, () -> Duration.ofSeconds(20L));
+  }
+
+  /**
+   * Gets the near cache.
+   *
+   * @return the near cache
+   */
+  public ExpiringCache<String, String> getNearCache() {
+    return nearCache;
+  }
+
+  @Override
+  public Mono<String> findAccessToken(String key) {
+    return Mono.defer(() -> {
+      String accessToken = nearCache.get(key);
+      if (accessToken != null) {
+        return Mono.just(accessToken);
+      }
+      return delegate.findAccessToken(key)
+          .doOnNext(token -> putIntoNearCache(key, token));
+    });
+  }
+
+  @Override
+  public Mono<Map<String, String>> findAccessTokens(Collection<String> keys) {
+    return Mono.defer(() -> {
+      Map<String, String> accessTokens = new LinkedHashMap<>();
+      List<String> missingKeys = new ArrayList<>();
+      for (String key : keys) {
+        String accessToken = nearCache.get(key);
+        if (accessToken != null) {
+          accessTokens.put(key, accessToken);
+        } else {
+          missingKeys.add(key);
+        }
+      }
+      if (missingKeys.isEmpty()) {
+        return Mono.just(accessTokens);
+      }
+      return delegate.findAccessTokens(missingKeys)
+          .map(foundAccessTokens -> {
+            foundAccessTokens.forEach((key, accessToken) -> {
+              putIntoNearCache(key, accessToken);
+              accessTokens.put(key, accessToken);
+            });
+            return accessTokens;
+          });
+    });
+  }
+
+  @Override
+  public Mono<String> putAccessToken(String key, String accessToken) {
+    return delegate.putAccessToken(key, accessToken)
+        .doOnNext(token -> putIntoNearCache(key, token));
+  }
+
+  @Override
+  public Mono<String> putAccessToken(String key, String accessToken, Mono<String> refreshMono) {
+    return delegate
+        .putAccessToken(key, accessToken, refreshMono != null
+            ? refreshMono.doOnNext(newAccessToken -> putIntoNearCache(key, newAccessToken))
+            : null)
+        .doOnNext(token -> putIntoNearCache(key, token));
+  }
+
+  private void putIntoNearCache(String key, String accessToken) {
+    long expirationTimeMillis = AccessTokenCacheEntry.of(accessToken).getExpirationTimeMillis();
+    if (expirationTimeMillis > 0L) {
+      nearCache.put(key, accessToken, Math.min(
+          System.currentTimeMillis() + timeToLive.toMillis(),
+          expirationTimeMillis - expirationTimeThreshold.toMillis()));
+    }
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    nearCache.clear();
+    if (delegate instanceof DisposableBean) {
+      ((DisposableBean) delegate).destroy();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ReactiveNearCacheAccessTokenCache {nearCache = " + nearCache
+        + ", timeToLive = " + timeToLive
+        + ", delegate = " + delegate
+        + '}';
+  }
+}
@@ -16,6 +16,8 @@
 
 package org.bremersee.security.authentication;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import lombok.extern.slf4j.Slf4j;
 import net.minidev.json.JSONObject;
 import net.minidev.json.JSONValue;
@@ -31,7 +33,8 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 /**
- * A reactive implementation of the {@link AccessTokenRetriever}.
+ * A reactive implementation of the {@link AccessTokenRetriever}. Concurrent requests for the same
+ * cache key share one cached {@link Mono}, so that only one request is sent to the token endpoint.
  *
  * @author Christian Bremer
  */
@@ -44,6 +47,8 @@ public class WebClientAccessTokenRetriever
 
   private final ReactiveAccessTokenCache accessTokenCache;
 
+  private final ConcurrentMap<String, Mono<String>> inFlightRequests = new ConcurrentHashMap<>();
+
   /**
    * Instantiates a new access token retriever that uses spring's web client.
    */
@@ -92,22 +97,39 @@ public class WebClientAccessTokenRetriever
     final String cacheKey = properties.createCacheKeyHashed();
     return Mono.justOrEmpty(accessTokenCache)
         .flatMap(cache -> cache.findAccessToken(cacheKey))
-        .switchIfEmpty(webClient
-            .method(HttpMethod.POST)
-            .uri(properties.getTokenEndpoint())
-            .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-            .headers(headers -> properties.getBasicAuthProperties()
-                .ifPresent(basicAuthProperties -> headers.setBasicAuth(
-                    basicAuthProperties.getUsername(),
-                    basicAuthProperties.getPassword())))
-            .body(BodyInserters.fromFormData(properties.createBody()))
-            .retrieve()
-            .onStatus(ErrorDetectors.DEFAULT, this)
-            .bodyToMono(String.class)
-            .map(response -> ((JSONObject) JSONValue.parse(response)).getAsString("access_token"))
-            .flatMap(accessToken -> accessTokenCache != null
-                ? accessTokenCache.putAccessToken(cacheKey, accessToken)
-                : Mono.just(accessToken)));
+        .switchIfEmpty(Mono.defer(() -> cacheKey != null
+            ? retrieveAccessTokenOnce(cacheKey, properties)
+            : requestAccessToken(properties)));
+  }
+
+  private Mono<String> retrieveAccessTokenOnce(
+      final String cacheKey,
+      final AccessTokenRetrieverProperties properties) {
+    return inFlightRequests.computeIfAbsent(cacheKey, key -> requestAccessToken(properties)
+        .flatMap(accessToken -> accessTokenCache != null
+            ? accessTokenCache.putAccessToken(
+            key,
+            accessToken,
+            Mono.defer(() -> requestAccessToken(properties)))
+            : Mono.just(accessToken))
+        .doFinally(signalType -> inFlightRequests.remove(key))
+        .cache());
+  }
+
+  private Mono<String> requestAccessToken(final AccessTokenRetrieverProperties properties) {
+    return webClient
+        .method(HttpMethod.POST)
+        .uri(properties.getTokenEndpoint())
+        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+        .headers(headers -> properties.getBasicAuthProperties()
+            .ifPresent(basicAuthProperties -> headers.setBasicAuth(
+                basicAuthProperties.getUsername(),
+                basicAuthProperties.getPassword())))
+        .body(BodyInserters.fromFormData(properties.createBody()))
+        .retrieve()
+        .onStatus(ErrorDetectors.DEFAULT, this)
+        .bodyToMono(String.class)
+        .map(response -> ((JSONObject) JSONValue.parse(response)).getAsString("access_token"));
   }
 
   @Override
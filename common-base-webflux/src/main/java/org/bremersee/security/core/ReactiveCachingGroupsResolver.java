@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.bremersee.security.core.CachingGroupsResolver.CachedGroups;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * A groups function for the {@link ReactiveUserContextCaller}, that caches the groups of the
+ * wrapped function (for example a ldap lookup) per user.
+ *
+ * <p>The groups of a user live in the cache for the given time to live. Concurrent lookups of the
+ * same user share one cached mono of the wrapped function. If cached groups are older than the
+ * refresh interval, they are returned and reloaded in the background; if reloading fails, the
+ * cached groups are kept until they expire.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public class ReactiveCachingGroupsResolver implements Function<Authentication, Mono<Set<String>>> {
+
+  private final Function<Authentication, Mono<Set<String>>> groupsFn;
+
+  private final ExpiringCache<String, CachedGroups> cache;
+
+  private final Duration timeToLive;
+
+  private final Duration refreshInterval;
+
+  private final ConcurrentMap<String, Mono<Set<String>>> inFlightLookups
+      = new ConcurrentHashMap<>();
+
+  /**
+   * Instantiates a new reactive caching groups resolver.
+   *
+   * @param groupsFn the groups function
+   * @param maximumSize the maximum number of cached users
+   * @param timeToLive the time to live of the cached groups (can be {@code null}, default is 5
+   *     minutes)
+   * @param refreshInterval the time after which cached groups are reloaded in the background
+   *     (can be {@code null}, default is three quarters of the time to live)
+   */
+  public ReactiveCachingGroupsResolver(
+      Function<Authentication, Mono<Set<String>>> groupsFn,
+      int maximumSize,
+      Duration timeToLive,
+      Duration refreshInterval) {
+    Assert.notNull(groupsFn, "Groups function must be present.");
+    this.groupsFn = groupsFn;
+    this.cache = new ExpiringCache<>(maximumSize);
+    this.timeToLive = Objects.requireNonNullElseGet(timeToLive, () -> Duration.ofMinutes(5L));
+    this.refreshInterval = Objects.requireNonNullElseGet(
+        refreshInterval,
+        () -> this.timeToLive.multipliedBy(3L).dividedBy(4L));
+  }
+
+  /**
+   * Gets the cache.
+   *
+   * @return the cache
+   */
+  public ExpiringCache<String, CachedGroups> getCache() {
+    return cache;
+  }
+
+  @Override
+  public Mono<Set<String>> apply(Authentication authentication) {
+    return Mono.defer(() -> {
+      String key = authentication != null ? authentication.getName() : null;
+      if (key == null) {
+        return groupsFn.apply(authentication);
+      }
+      CachedGroups cachedGroups = cache.get(key);
+      if (cachedGroups != null) {
+        if (System.currentTimeMillis() >= cachedGroups.getRefreshAt()) {
+          load(key, authentication).subscribe(
+              groups -> log.debug("Groups of user {} reloaded.", key),
+              error -> log.error("Reloading groups of user " + key + " failed.", error));
+        }
+        return Mono.just(cachedGroups.getGroups());
+      }
+      return load(key, authentication);
+    });
+  }
+
+  private Mono<Set<String>> load(String key, Authentication authentication) {
+    return inFlightLookups.computeIfAbsent(key, k -> groupsFn.apply(authentication)
+        .<Set<String>>map(Set::copyOf)
+        .defaultIfEmpty(Collections.emptySet())
+        .doOnNext(groups -> {
+          long now = System.currentTimeMillis();
+          cache.put(
+              k,
+              new CachedGroups(groups, now + refreshInterval.toMillis()),
+              now + timeToLive.toMillis());
+        })
+        .doFinally(signalType -> inFlightLookups.remove(k))
+        .cache());
+  }
+
+  @Override
+  public String toString() {
+    return "ReactiveCachingGroupsResolver {maximumSize = " + cache.getMaximumSize()
+        + ", timeToLive = " + timeToLive
+        + ", refreshInterval = " + refreshInterval
+        + '}';
+  }
+
+}
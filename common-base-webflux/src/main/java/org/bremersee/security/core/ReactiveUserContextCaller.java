@@ -17,25 +17,31 @@
 package org.bremersee.security.core;
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 import javax.validation.constraints.NotNull;
 import org.bremersee.exception.ServiceException;
 import org.reactivestreams.Publisher;
 import org.springframework.lang.Nullable;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.validation.annotation.Validated;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
 /**
  * The reactive user context caller.
  *
+ * <p>The user context is created once per request and is reused by further calls of this caller
+ * within the same request, if the request has a user context scope in its reactor context. The
+ * scope is opened by the {@link UserContextScopeWebFilter}, which is auto configured in reactive
+ * web applications. Without a scope the user context is created for every call.
+ *
  * @author Christian Bremer
  */
 @Validated
@@ -101,11 +107,34 @@ public class ReactiveUserContextCaller {
         : FORBIDDEN_SUPPLIER;
   }
 
-  private Set<String> toRoles(Authentication authentication) {
-    return authentication.getAuthorities()
-        .stream()
-        .map(GrantedAuthority::getAuthority)
-        .collect(Collectors.toSet());
+  /**
+   * Opens a user context scope in the reactor context, if there is none yet. Within the scope
+   * (normally one request) the user context of a caller is created only once.
+   *
+   * @return the function, that adds the user context scope to the reactor context
+   */
+  public static Function<Context, Context> withUserContextScope() {
+    return context -> context.hasKey(UserContextScope.class)
+        ? context
+        : context.put(UserContextScope.class, new UserContextScope());
+  }
+
+  private Mono<UserContext> userContext() {
+    return Mono.subscriberContext()
+        .flatMap(context -> context.<UserContextScope>getOrEmpty(UserContextScope.class)
+            .map(scope -> scope.userContexts
+                .computeIfAbsent(this, caller -> caller.createUserContext().cache()))
+            .orElseGet(this::createUserContext));
+  }
+
+  private Mono<UserContext> createUserContext() {
+    return ReactiveSecurityContextHolder.getContext()
+        .map(SecurityContext::getAuthentication)
+        .filter(Authentication::isAuthenticated)
+        .flatMap(authentication -> groupsFn.apply(authentication)
+            .switchIfEmpty(EMPTY_GROUPS_SUPPLIER.get())
+            .map(groups -> UserContext.newInstance(authentication, groups)))
+        .switchIfEmpty(unauthenticatedSupplier.get());
   }
 
   /**
@@ -117,18 +146,7 @@ public class ReactiveUserContextCaller {
    */
   public <R> Mono<R> oneWithUserContext(
       @NotNull Function<UserContext, ? extends Mono<R>> function) {
-    return ReactiveSecurityContextHolder.getContext()
-        .map(SecurityContext::getAuthentication)
-        .filter(Authentication::isAuthenticated)
-        .zipWhen(authentication -> groupsFn
-            .apply(authentication)
-            .switchIfEmpty(EMPTY_GROUPS_SUPPLIER.get()))
-        .map(tuple -> UserContext.newInstance(
-            tuple.getT1().getName(),
-            toRoles(tuple.getT1()),
-            tuple.getT2()))
-        .switchIfEmpty(unauthenticatedSupplier.get())
-        .flatMap(function);
+    return userContext().flatMap(function);
   }
 
   /**
@@ -174,18 +192,7 @@ public class ReactiveUserContextCaller {
    */
   public <R> Flux<R> manyWithUserContext(
       @NotNull Function<UserContext, ? extends Publisher<R>> function) {
-    return ReactiveSecurityContextHolder.getContext()
-        .map(SecurityContext::getAuthentication)
-        .filter(Authentication::isAuthenticated)
-        .zipWhen(authentication -> groupsFn
-            .apply(authentication)
-            .switchIfEmpty(EMPTY_GROUPS_SUPPLIER.get()))
-        .map(tuple -> UserContext.newInstance(
-            tuple.getT1().getName(),
-            toRoles(tuple.getT1()),
-            tuple.getT2()))
-        .switchIfEmpty(unauthenticatedSupplier.get())
-        .flatMapMany(function);
+    return userContext().flatMapMany(function);
   }
 
   /**
@@ -222,4 +229,13 @@ public class ReactiveUserContextCaller {
         .manyWithUserContext(function);
   }
 
+  /**
+   * The user context scope holds the user contexts of the callers, that were used within it.
+   */
+  private static class UserContextScope {
+
+    private final Map<ReactiveUserContextCaller, Mono<UserContext>> userContexts
+        = new ConcurrentHashMap<>();
+  }
+
 }
@@ -19,6 +19,7 @@ package org.bremersee.web.reactive.function.client;
 import org.bremersee.security.authentication.AccessTokenProvider;
 import org.bremersee.security.authentication.AccessTokenRetriever;
 import org.bremersee.security.authentication.AccessTokenRetrieverProperties;
+import org.bremersee.security.authentication.ReactiveAccessTokenCache;
 import org.bremersee.security.authentication.ReactiveAccessTokenProviders;
 import org.springframework.http.HttpHeaders;
 import org.springframework.util.Assert;
@@ -80,7 +81,8 @@ public class AccessTokenAppender implements ExchangeFilterFunction {
   }
 
   /**
-   * With access token retriever access token appender.
+   * With access token retriever access token appender. The retrieved access token is kept in
+   * memory until it expires.
    *
    * @param properties the properties
    * @return the access token appender
@@ -92,6 +94,22 @@ public class AccessTokenAppender implements ExchangeFilterFunction {
         ReactiveAccessTokenProviders.withAccessTokenRetriever(properties));
   }
 
+  /**
+   * With access token retriever access token appender. The retrieved access token is kept in
+   * memory until it expires and is also put into the given cache.
+   *
+   * @param properties the properties
+   * @param accessTokenCache the access token cache (can be {@code null})
+   * @return the access token appender
+   */
+  @SuppressWarnings("unused")
+  public static AccessTokenAppender withAccessTokenRetriever(
+      final AccessTokenRetrieverProperties properties,
+      final ReactiveAccessTokenCache accessTokenCache) {
+    return new AccessTokenAppender(
+        ReactiveAccessTokenProviders.withAccessTokenRetriever(properties, accessTokenCache));
+  }
+
   /**
    * With access token retriever access token appender.
    *
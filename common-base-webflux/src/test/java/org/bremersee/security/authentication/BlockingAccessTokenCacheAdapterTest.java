@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+/**
+ * The blocking access token cache adapter test.
+ *
+ * @author Christian Bremer
+ */
+class BlockingAccessTokenCacheAdapterTest {
+
+  /**
+   * Find access token.
+   */
+  @Test
+  void findAccessToken() {
+    AtomicReference<String> threadName = new AtomicReference<>();
+    AccessTokenCache cache = mock(AccessTokenCache.class);
+    when(cache.findAccessToken("key")).thenAnswer(invocation -> {
+      threadName.set(Thread.currentThread().getName());
+      return Optional.of("token");
+    });
+    BlockingAccessTokenCacheAdapter adapter = new BlockingAccessTokenCacheAdapter(cache, null);
+
+    StepVerifier.create(adapter.findAccessToken("key"))
+        .assertNext(token -> assertEquals("token", token))
+        .verifyComplete();
+    assertNotEquals(Thread.currentThread().getName(), threadName.get());
+    assertTrue(adapter.isOffloaded());
+    assertEquals(1L, adapter.getBlockingCallCount());
+    assertEquals(0L, adapter.getEventLoopBlockingTimeNanos());
+  }
+
+  /**
+   * Find access token without offload.
+   */
+  @Test
+  void findAccessTokenWithoutOffload() {
+    AtomicReference<String> threadName = new AtomicReference<>();
+    AccessTokenCache cache = mock(AccessTokenCache.class);
+    when(cache.findAccessToken("key")).thenAnswer(invocation -> {
+      threadName.set(Thread.currentThread().getName());
+      return Optional.of("token");
+    });
+    BlockingAccessTokenCacheAdapter adapter = (BlockingAccessTokenCacheAdapter)
+        ReactiveAccessTokenCache.from(cache);
+    assertFalse(adapter.isOffloaded());
+
+    StepVerifier.create(adapter.findAccessToken("key").subscribeOn(Schedulers.parallel()))
+        .assertNext(token -> assertEquals("token", token))
+        .verifyComplete();
+    assertTrue(threadName.get().startsWith("parallel"));
+    assertEquals(1L, adapter.getBlockingCallCount());
+    assertEquals(adapter.getBlockingTimeNanos(), adapter.getEventLoopBlockingTimeNanos());
+  }
+
+  /**
+   * Find access token concurrently.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void findAccessTokenConcurrently() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    AccessTokenCache cache = mock(AccessTokenCache.class);
+    when(cache.findAccessToken(anyString())).thenAnswer(invocation -> {
+      latch.await();
+      return Optional.of("token");
+    });
+    BlockingAccessTokenCacheAdapter adapter = new BlockingAccessTokenCacheAdapter(cache, null);
+
+    Mono<List<String>> results = Flux.merge(
+        adapter.findAccessToken("key"),
+        adapter.findAccessToken("key"),
+        adapter.findAccessToken("key"))
+        .collectList();
+    StepVerifier.create(results)
+        .then(latch::countDown)
+        .assertNext(tokens -> assertEquals(List.of("token", "token", "token"), tokens))
+        .verifyComplete();
+    verify(cache, times(1)).findAccessToken("key");
+  }
+
+  /**
+   * Put access token.
+   */
+  @Test
+  void putAccessToken() {
+    AccessTokenCache cache = mock(AccessTokenCache.class);
+    ReactiveAccessTokenCache adapter = ReactiveAccessTokenCache.fromBlocking(cache, null);
+
+    StepVerifier.create(adapter.putAccessToken("key", "token"))
+        .assertNext(token -> assertEquals("token", token))
+        .verifyComplete();
+    verify(cache).putAccessToken("key", "token");
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * The caching reactive access token provider test.
+ *
+ * @author Christian Bremer
+ */
+class CachingReactiveAccessTokenProviderTest {
+
+  /**
+   * Gets access token.
+   */
+  @Test
+  void getAccessToken() {
+    String accessToken = new PlainJWT(new JWTClaimsSet.Builder()
+        .expirationTime(new Date(System.currentTimeMillis() + 1000L * 60L * 30L))
+        .jwtID(UUID.randomUUID().toString())
+        .build())
+        .serialize();
+    //noinspection unchecked
+    AccessTokenRetriever<Mono<String>> retriever = mock(AccessTokenRetriever.class);
+    when(retriever.retrieveAccessToken(any(AccessTokenRetrieverProperties.class)))
+        .thenReturn(Mono.just(accessToken));
+
+    ClientCredentialsFlowProperties properties = ClientCredentialsFlowProperties.builder()
+        .tokenEndpoint("http://localhost/token")
+        .clientId("123")
+        .clientSecret("456")
+        .build();
+    CachingReactiveAccessTokenProvider provider = new CachingReactiveAccessTokenProvider(
+        retriever, properties, null);
+
+    StepVerifier.create(provider.getAccessToken())
+        .assertNext(token -> assertEquals(accessToken, token))
+        .verifyComplete();
+    StepVerifier.create(provider.getAccessToken())
+        .assertNext(token -> assertEquals(accessToken, token))
+        .verifyComplete();
+    verify(retriever, times(1)).retrieveAccessToken(any(AccessTokenRetrieverProperties.class));
+  }
+
+  /**
+   * Gets access token without expiration time.
+   */
+  @Test
+  void getAccessTokenWithoutExpirationTime() {
+    //noinspection unchecked
+    AccessTokenRetriever<Mono<String>> retriever = mock(AccessTokenRetriever.class);
+    when(retriever.retrieveAccessToken(any(AccessTokenRetrieverProperties.class)))
+        .thenReturn(Mono.just("opaque"));
+
+    ClientCredentialsFlowProperties properties = ClientCredentialsFlowProperties.builder()
+        .tokenEndpoint("http://localhost/token")
+        .clientId("123")
+        .clientSecret("456")
+        .build();
+    CachingReactiveAccessTokenProvider provider = new CachingReactiveAccessTokenProvider(
+        retriever, properties, null);
+
+    StepVerifier.create(provider.getAccessToken())
+        .assertNext(token -> assertEquals("opaque", token))
+        .verifyComplete();
+    StepVerifier.create(provider.getAccessToken())
+        .assertNext(token -> assertEquals("opaque", token))
+        .verifyComplete();
+    verify(retriever, times(2)).retrieveAccessToken(any(AccessTokenRetrieverProperties.class));
+  }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * The caching reactive jwt decoder test.
+ *
+ * @author Christian Bremer
+ */
+class CachingReactiveJwtDecoderTest {
+
+  private static Jwt createJwt(String tokenValue, Instant expiresAt) {
+    Jwt.Builder builder = Jwt.withTokenValue(tokenValue)
+        .header("alg", "none")
+        .subject("subject")
+        .issuedAt(Instant.now());
+    if (expiresAt != null) {
+      builder = builder.expiresAt(expiresAt);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Decode.
+   */
+  @Test
+  void decode() {
+    Jwt jwt = createJwt("token", Instant.now().plusSeconds(600L));
+    ReactiveJwtDecoder delegate = mock(ReactiveJwtDecoder.class);
+    when(delegate.decode("token")).thenReturn(Mono.just(jwt));
+    CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(delegate, 10);
+
+    StepVerifier.create(decoder.decode("token"))
+        .expectNext(jwt)
+        .verifyComplete();
+    StepVerifier.create(decoder.decode("token"))
+        .expectNext(jwt)
+        .verifyComplete();
+    verify(delegate, times(1)).decode("token");
+    assertEquals(1, decoder.getCache().size());
+  }
+
+  /**
+   * Decode without expiration time.
+   */
+  @Test
+  void decodeWithoutExpirationTime() {
+    Jwt jwt = createJwt("token", null);
+    ReactiveJwtDecoder delegate = mock(ReactiveJwtDecoder.class);
+    when(delegate.decode("token")).thenReturn(Mono.just(jwt));
+    CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(delegate, 10);
+
+    StepVerifier.create(decoder.decode("token"))
+        .expectNext(jwt)
+        .verifyComplete();
+    StepVerifier.create(decoder.decode("token"))
+        .expectNext(jwt)
+        .verifyComplete();
+    verify(delegate, times(2)).decode("token");
+    assertEquals(0, decoder.getCache().size());
+  }
+
+  /**
+   * Decode with error.
+   */
+  @Test
+  void decodeWithError() {
+    Jwt jwt = createJwt("token", Instant.now().plusSeconds(600L));
+    ReactiveJwtDecoder delegate = mock(ReactiveJwtDecoder.class);
+    when(delegate.decode("token"))
+        .thenReturn(Mono.error(new JwtException("Signature is invalid.")))
+        .thenReturn(Mono.just(jwt));
+    CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(delegate, 10);
+
+    StepVerifier.create(decoder.decode("token"))
+        .expectError(JwtException.class)
+        .verify();
+    assertEquals(0, decoder.getCache().size());
+    StepVerifier.create(decoder.decode("token"))
+        .expectNext(jwt)
+        .verifyComplete();
+    verify(delegate, times(2)).decode("token");
+  }
+
+}
@@ -23,6 +23,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bremersee.exception.AccessTokenRetrieverAuthenticationException;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -99,6 +101,56 @@ class WebClientAccessTokenRetrieverTest {
         .verifyComplete();
   }
 
+  /**
+   * Retrieve access token concurrently.
+   */
+  @Test
+  void retrieveAccessTokenConcurrently() {
+    final String jwt = "{\"access_token\": \"test-token\"}";
+    final AtomicInteger requests = new AtomicInteger();
+
+    ResponseSpec responseSpec = mock(ResponseSpec.class);
+    when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+    //noinspection unchecked
+    when(responseSpec.bodyToMono(any(Class.class))).thenReturn(Mono.defer(() -> {
+      requests.incrementAndGet();
+      return Mono.just(jwt).delayElement(Duration.ofMillis(100L));
+    }));
+
+    //noinspection rawtypes
+    RequestHeadersSpec requestHeadersSpec = mock(RequestHeadersSpec.class);
+    when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+
+    RequestBodySpec requestBodySpec = mock(RequestBodySpec.class);
+    when(requestBodySpec.contentType(any(MediaType.class))).thenReturn(requestBodySpec);
+    when(requestBodySpec.headers(any())).thenReturn(requestBodySpec);
+    //noinspection unchecked
+    when(requestBodySpec.body(any())).thenReturn(requestHeadersSpec);
+
+    RequestBodyUriSpec requestBodyUriSpec = mock(RequestBodyUriSpec.class);
+    when(requestBodyUriSpec.uri(Mockito.anyString())).thenReturn(requestBodySpec);
+
+    WebClient webClient = mock(WebClient.class);
+    when(webClient.method(any(HttpMethod.class))).thenReturn(requestBodyUriSpec);
+
+    ClientCredentialsFlowProperties properties = ClientCredentialsFlowProperties.builder()
+        .tokenEndpoint("http://localhost/token")
+        .clientId("123")
+        .clientSecret("456")
+        .build();
+
+    WebClientAccessTokenRetriever retriever = new WebClientAccessTokenRetriever(webClient);
+    StepVerifier.create(Mono.zip(
+        retriever.retrieveAccessToken(properties),
+        retriever.retrieveAccessToken(properties)))
+        .assertNext(tokens -> {
+          assertEquals("test-token", tokens.getT1());
+          assertEquals("test-token", tokens.getT2());
+        })
+        .verifyComplete();
+    assertEquals(1, requests.get());
+  }
+
   /**
    * Build exception.
    */
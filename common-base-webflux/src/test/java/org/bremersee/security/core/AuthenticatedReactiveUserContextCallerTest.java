@@ -24,6 +24,7 @@ import static org.mockito.Mockito.when;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.Authentication;
@@ -129,6 +130,34 @@ class AuthenticatedReactiveUserContextCallerTest {
         .verifyComplete();
   }
 
+  /**
+   * User context is created once within a user context scope.
+   */
+  @Test
+  void oneWithUserContextInScope() {
+    AtomicInteger groupsCalls = new AtomicInteger();
+    ReactiveUserContextCaller caller = new ReactiveUserContextCaller(
+        auth -> Mono.fromCallable(() -> {
+          groupsCalls.incrementAndGet();
+          return Collections.singleton(group);
+        }),
+        ReactiveUserContextCaller.FORBIDDEN_SUPPLIER);
+    Mono<UserContext> twoCalls = caller
+        .oneWithUserContext(userContext -> this.serviceMono(userContext, new Object()))
+        .then(caller.oneWithUserContext(userContext -> this.serviceMono(userContext, "")));
+
+    StepVerifier
+        .create(twoCalls.subscriberContext(ReactiveUserContextCaller.withUserContextScope()))
+        .assertNext(userContext -> assertEquals(expected, userContext))
+        .verifyComplete();
+    assertEquals(1, groupsCalls.get());
+
+    StepVerifier.create(twoCalls)
+        .assertNext(userContext -> assertEquals(expected, userContext))
+        .verifyComplete();
+    assertEquals(3, groupsCalls.get());
+  }
+
   private Mono<UserContext> serviceMono(UserContext userContext, Object arg) {
     assertNotNull(arg);
     return Mono.just(userContext);
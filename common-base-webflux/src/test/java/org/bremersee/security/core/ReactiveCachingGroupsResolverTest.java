@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * The reactive caching groups resolver test.
+ *
+ * @author Christian Bremer
+ */
+class ReactiveCachingGroupsResolverTest {
+
+  private static Authentication authentication(String name) {
+    Authentication authentication = mock(Authentication.class);
+    when(authentication.getName()).thenReturn(name);
+    return authentication;
+  }
+
+  /**
+   * Apply.
+   */
+  @Test
+  void apply() {
+    AtomicInteger calls = new AtomicInteger();
+    ReactiveCachingGroupsResolver resolver = new ReactiveCachingGroupsResolver(
+        auth -> Mono.fromCallable(() -> {
+          calls.incrementAndGet();
+          return Set.of("group");
+        }),
+        10, Duration.ofMinutes(1L), null);
+
+    StepVerifier.create(resolver.apply(authentication("anna")))
+        .assertNext(groups -> assertEquals(Set.of("group"), groups))
+        .verifyComplete();
+    StepVerifier.create(resolver.apply(authentication("anna")))
+        .assertNext(groups -> assertEquals(Set.of("group"), groups))
+        .verifyComplete();
+    assertEquals(1, calls.get());
+  }
+
+  /**
+   * Apply concurrently.
+   */
+  @Test
+  void applyConcurrently() {
+    AtomicInteger calls = new AtomicInteger();
+    ReactiveCachingGroupsResolver resolver = new ReactiveCachingGroupsResolver(
+        auth -> Mono.fromCallable(() -> {
+          calls.incrementAndGet();
+          return Set.of("group");
+        }).delayElement(Duration.ofMillis(100L)),
+        10, Duration.ofMinutes(1L), null);
+
+    Mono<List<Set<String>>> results = Flux.merge(
+        resolver.apply(authentication("anna")),
+        resolver.apply(authentication("anna")),
+        resolver.apply(authentication("anna")))
+        .collectList();
+    StepVerifier.create(results)
+        .assertNext(groups -> assertEquals(3, groups.size()))
+        .verifyComplete();
+    assertEquals(1, calls.get());
+  }
+
+  /**
+   * Refresh in background.
+   */
+  @Test
+  void refreshInBackground() {
+    AtomicInteger calls = new AtomicInteger();
+    ReactiveCachingGroupsResolver resolver = new ReactiveCachingGroupsResolver(
+        auth -> Mono.fromCallable(() -> Set.of("group" + calls.incrementAndGet())),
+        10, Duration.ofMinutes(1L), Duration.ZERO);
+
+    StepVerifier.create(resolver.apply(authentication("anna")))
+        .assertNext(groups -> assertEquals(Set.of("group1"), groups))
+        .verifyComplete();
+    StepVerifier.create(resolver.apply(authentication("anna")))
+        .assertNext(groups -> assertEquals(Set.of("group1"), groups))
+        .verifyComplete();
+    StepVerifier.create(resolver.apply(authentication("anna")))
+        .assertNext(groups -> assertEquals(Set.of("group2"), groups))
+        .verifyComplete();
+  }
+
+  /**
+   * Empty groups.
+   */
+  @Test
+  void emptyGroups() {
+    ReactiveCachingGroupsResolver resolver = new ReactiveCachingGroupsResolver(
+        auth -> Mono.empty(), 10, null, null);
+    StepVerifier.create(resolver.apply(authentication("anna")))
+        .assertNext(groups -> assertEquals(Set.of(), groups))
+        .verifyComplete();
+  }
+
+}
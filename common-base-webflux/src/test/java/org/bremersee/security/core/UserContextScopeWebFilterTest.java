@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * The user context scope web filter test.
+ *
+ * @author Christian Bremer
+ */
+class UserContextScopeWebFilterTest {
+
+  /**
+   * Filter creates the user context once per request.
+   */
+  @Test
+  void filter() {
+    Authentication authentication = mock(Authentication.class);
+    when(authentication.isAuthenticated()).thenReturn(true);
+    when(authentication.getName()).thenReturn("anna");
+    AtomicInteger groupsCalls = new AtomicInteger();
+    ReactiveUserContextCaller caller = new ReactiveUserContextCaller(
+        auth -> Mono.fromCallable(() -> {
+          groupsCalls.incrementAndGet();
+          return Collections.singleton("friends");
+        }),
+        ReactiveUserContextCaller.FORBIDDEN_SUPPLIER);
+    WebFilterChain chain = exchange -> caller
+        .oneWithUserContext(userContext -> Mono.just(userContext.getGroups()))
+        .then(caller.oneWithUserContext(userContext -> Mono.just(userContext.getGroups())))
+        .doOnNext(groups -> assertEquals(Set.of("friends"), groups))
+        .then();
+
+    UserContextScopeWebFilter filter = new UserContextScopeWebFilter();
+    StepVerifier
+        .create(filter.filter(mock(ServerWebExchange.class), chain)
+            .subscriberContext(ReactiveSecurityContextHolder.withAuthentication(authentication)))
+        .verifyComplete();
+    assertEquals(1, groupsCalls.get());
+
+    // every request gets its own scope
+    StepVerifier
+        .create(filter.filter(mock(ServerWebExchange.class), chain)
+            .subscriberContext(ReactiveSecurityContextHolder.withAuthentication(authentication)))
+        .verifyComplete();
+    assertEquals(2, groupsCalls.get());
+  }
+
+}
@@ -46,9 +46,36 @@ public interface AccessController {
    * @param acl the access control list
    * @return the access controller
    */
-  @SuppressWarnings("rawtypes")
+  @SuppressWarnings({"rawtypes", "unchecked"})
   static AccessController from(@Nullable Acl acl) {
-    return acl == null ? new Impl() : new Impl(AclBuilder.builder().from(acl).buildAcl());
+    if (acl == null) {
+      return new Impl();
+    }
+    return acl instanceof FrozenAcl
+        ? new Impl(acl)
+        : new Impl(AclBuilder.builder().from(acl).buildAcl());
+  }
+
+  /**
+   * Compiles the given access control list into an access controller, that checks permissions
+   * with bit masks (see {@link CompiledAccessController}).
+   *
+   * @param acl the access control list
+   * @return the access controller
+   */
+  static AccessController compile(@Nullable AccessControlList acl) {
+    return CompiledAccessController.compile(acl);
+  }
+
+  /**
+   * Compiles the given access control list into an access controller, that checks permissions
+   * with bit masks (see {@link CompiledAccessController}).
+   *
+   * @param acl the access control list
+   * @return the access controller
+   */
+  static AccessController compile(@Nullable Acl<? extends Ace> acl) {
+    return CompiledAccessController.compile(acl);
   }
 
   /**
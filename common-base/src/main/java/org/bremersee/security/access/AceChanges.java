@@ -0,0 +1,208 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The changes of the access control entry of one permission.
+ *
+ * @author Christian Bremer
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class AceChanges {
+
+  private final String permission;
+
+  /**
+   * The new guest value or {@code null}, if it isn't changed.
+   */
+  @Nullable
+  private final Boolean guest;
+
+  private final Set<String> addedUsers;
+
+  private final Set<String> removedUsers;
+
+  private final Set<String> addedRoles;
+
+  private final Set<String> removedRoles;
+
+  private final Set<String> addedGroups;
+
+  private final Set<String> removedGroups;
+
+  /**
+   * Instantiates new access control entry changes.
+   *
+   * @param permission the permission
+   * @param guest the new guest value or {@code null}, if it isn't changed
+   * @param addedUsers the added users
+   * @param removedUsers the removed users
+   * @param addedRoles the added roles
+   * @param removedRoles the removed roles
+   * @param addedGroups the added groups
+   * @param removedGroups the removed groups
+   */
+  @Builder
+  public AceChanges(
+      String permission,
+      @Nullable Boolean guest,
+      @Nullable Collection<String> addedUsers,
+      @Nullable Collection<String> removedUsers,
+      @Nullable Collection<String> addedRoles,
+      @Nullable Collection<String> removedRoles,
+      @Nullable Collection<String> addedGroups,
+      @Nullable Collection<String> removedGroups) {
+    Assert.hasText(permission, "Permission must be present.");
+    this.permission = permission.toLowerCase();
+    this.guest = guest;
+    this.addedUsers = sortedSet(addedUsers);
+    this.removedUsers = sortedSet(removedUsers);
+    this.addedRoles = sortedSet(addedRoles);
+    this.removedRoles = sortedSet(removedRoles);
+    this.addedGroups = sortedSet(addedGroups);
+    this.removedGroups = sortedSet(removedGroups);
+  }
+
+  private static Set<String> sortedSet(Collection<String> values) {
+    if (values == null || values.isEmpty()) {
+      return Collections.emptySet();
+    }
+    Set<String> set = new TreeSet<>();
+    values.stream().filter(StringUtils::hasText).forEach(set::add);
+    return Collections.unmodifiableSet(set);
+  }
+
+  /**
+   * Determines whether there are no changes.
+   *
+   * @return {@code true} if there are no changes, otherwise {@code false}
+   */
+  public boolean isEmpty() {
+    return guest == null
+        && addedUsers.isEmpty()
+        && removedUsers.isEmpty()
+        && addedRoles.isEmpty()
+        && removedRoles.isEmpty()
+        && addedGroups.isEmpty()
+        && removedGroups.isEmpty();
+  }
+
+  /**
+   * Applies the changes to the given access control entry. For every modification, that was
+   * made, an action is added to the undo list, that reverts it.
+   *
+   * @param ace the access control entry
+   * @param undo the undo list
+   */
+  void applyTo(Ace ace, List<Runnable> undo) {
+    if (guest != null) {
+      final boolean oldGuest = ace.isGuest();
+      ace.setGuest(guest);
+      undo.add(() -> ace.setGuest(oldGuest));
+    }
+    applyTo(ace.getUsers(), addedUsers, removedUsers, undo);
+    applyTo(ace.getRoles(), addedRoles, removedRoles, undo);
+    applyTo(ace.getGroups(), addedGroups, removedGroups, undo);
+  }
+
+  private static void applyTo(
+      Set<String> values,
+      Set<String> added,
+      Set<String> removed,
+      List<Runnable> undo) {
+    for (String value : removed) {
+      if (values.remove(value)) {
+        undo.add(() -> values.add(value));
+      }
+    }
+    for (String value : added) {
+      if (values.add(value)) {
+        undo.add(() -> values.remove(value));
+      }
+    }
+  }
+
+  /**
+   * Applies the changes to the given acl builder.
+   *
+   * @param aclBuilder the acl builder
+   */
+  void applyTo(AclBuilder aclBuilder) {
+    if (guest != null) {
+      aclBuilder.guest(guest, permission);
+    }
+    removedUsers.forEach(user -> aclBuilder.removeUser(user, permission));
+    addedUsers.forEach(user -> aclBuilder.addUser(user, permission));
+    removedRoles.forEach(role -> aclBuilder.removeRole(role, permission));
+    addedRoles.forEach(role -> aclBuilder.addRole(role, permission));
+    removedGroups.forEach(group -> aclBuilder.removeGroup(group, permission));
+    addedGroups.forEach(group -> aclBuilder.addGroup(group, permission));
+  }
+
+  /**
+   * Calculates the changes from the source entry to the target entry.
+   *
+   * @param permission the permission
+   * @param source the source entry (can be {@code null})
+   * @param target the target entry (can be {@code null})
+   * @return the changes
+   */
+  static AceChanges between(String permission, @Nullable Ace source, @Nullable Ace target) {
+    boolean sourceGuest = source != null && source.isGuest();
+    boolean targetGuest = target != null && target.isGuest();
+    Set<String> sourceUsers = source != null ? source.getUsers() : Collections.emptySet();
+    Set<String> targetUsers = target != null ? target.getUsers() : Collections.emptySet();
+    Set<String> sourceRoles = source != null ? source.getRoles() : Collections.emptySet();
+    Set<String> targetRoles = target != null ? target.getRoles() : Collections.emptySet();
+    Set<String> sourceGroups = source != null ? source.getGroups() : Collections.emptySet();
+    Set<String> targetGroups = target != null ? target.getGroups() : Collections.emptySet();
+    return new AceChanges(
+        permission,
+        sourceGuest != targetGuest ? targetGuest : null,
+        minus(targetUsers, sourceUsers),
+        minus(sourceUsers, targetUsers),
+        minus(targetRoles, sourceRoles),
+        minus(sourceRoles, targetRoles),
+        minus(targetGroups, sourceGroups),
+        minus(sourceGroups, targetGroups));
+  }
+
+  private static Set<String> minus(Set<String> a, Set<String> b) {
+    if (a.isEmpty()) {
+      return Collections.emptySet();
+    }
+    Set<String> result = new TreeSet<>(a);
+    result.removeAll(b);
+    return result;
+  }
+
+}
@@ -47,6 +47,29 @@ public interface AclBuilder {
     return new Impl();
   }
 
+  /**
+   * Calculates the minimal changes, that turn the source acl into the target acl.
+   *
+   * @param source the source acl
+   * @param target the target acl
+   * @return the changes
+   */
+  static AclChanges diff(@Nullable Acl<? extends Ace> source, @Nullable Acl<? extends Ace> target) {
+    return AclChanges.between(builder().from(source).buildAcl(), builder().from(target).buildAcl());
+  }
+
+  /**
+   * Calculates the minimal changes, that turn the source acl into the target access control list
+   * (for example the acl of an entity and the acl of an update request).
+   *
+   * @param source the source acl
+   * @param target the target access control list
+   * @return the changes
+   */
+  static AclChanges diff(@Nullable Acl<? extends Ace> source, @Nullable AccessControlList target) {
+    return AclChanges.between(builder().from(source).buildAcl(), builder().from(target).buildAcl());
+  }
+
   /**
    * Reset acl builder.
    *
@@ -162,6 +185,22 @@ public interface AclBuilder {
    */
   AclBuilder removeGroup(@Nullable String group, @Nullable String... permissions);
 
+  /**
+   * Applies the given changes.
+   *
+   * @param changes the changes
+   * @return the acl builder
+   */
+  default AclBuilder apply(@Nullable AclChanges changes) {
+    if (changes != null) {
+      if (changes.isOwnerChanged()) {
+        owner(changes.getOwner());
+      }
+      changes.getEntries().values().forEach(aceChanges -> aceChanges.applyTo(this));
+    }
+    return this;
+  }
+
   /**
    * Ensures admin access.
    *
@@ -250,6 +289,16 @@ public interface AclBuilder {
     return build((o, e) -> new AclImpl(o, new HashMap<>(e)));
   }
 
+  /**
+   * Build an immutable acl, that is backed by sorted arrays and calculates its hash code only
+   * once. It's meant for acls, that are read often, cached or compared.
+   *
+   * @return the immutable acl
+   */
+  default Acl<? extends Ace> buildFrozenAcl() {
+    return build(FrozenAcl::new);
+  }
+
   /**
    * Build access control list.
    *
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Singular;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+
+/**
+ * The changes between two access control lists (see {@link AclBuilder#diff(Acl, Acl)}). Only
+ * permissions with changes are contained. The changes can be applied to an acl builder
+ * ({@link AclBuilder#apply(AclChanges)}) or in place to an acl ({@link #applyTo(Acl)}); a
+ * persistence layer can also translate them into a partial update of the stored document.
+ *
+ * @author Christian Bremer
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class AclChanges {
+
+  private final boolean ownerChanged;
+
+  @Nullable
+  private final String owner;
+
+  /**
+   * The changes of the entries, the key is the permission.
+   */
+  private final Map<String, AceChanges> entries;
+
+  /**
+   * Instantiates new acl changes.
+   *
+   * @param ownerChanged specifies whether the owner is changed
+   * @param owner the new owner
+   * @param entries the changes of the entries
+   */
+  @Builder
+  public AclChanges(
+      boolean ownerChanged,
+      @Nullable String owner,
+      @Nullable @Singular Collection<AceChanges> entries) {
+    this.ownerChanged = ownerChanged;
+    this.owner = owner;
+    Map<String, AceChanges> map = new TreeMap<>();
+    if (entries != null) {
+      entries.stream()
+          .filter(Objects::nonNull)
+          .filter(aceChanges -> !aceChanges.isEmpty())
+          .forEach(aceChanges -> map.put(aceChanges.getPermission(), aceChanges));
+    }
+    this.entries = Collections.unmodifiableMap(map);
+  }
+
+  /**
+   * Determines whether there are no changes.
+   *
+   * @return {@code true} if there are no changes, otherwise {@code false}
+   */
+  public boolean isEmpty() {
+    return !ownerChanged && entries.isEmpty();
+  }
+
+  /**
+   * Applies the changes in place to the given acl. This is only possible, if the acl has entries
+   * for all changed permissions, because the entry map of an acl can't be modified. If an entry
+   * is missing, nothing is changed and {@code false} is returned; the acl must then be rebuilt
+   * with {@link AclBuilder#apply(AclChanges)}. Immutable acls (see
+   * {@link AclBuilder#buildFrozenAcl()}) can't be changed in place, so {@code false} is returned
+   * for them, too, unless there are no changes. The same applies to any other acl, whose owner or
+   * entries throw an {@link UnsupportedOperationException}; the modifications, that were already
+   * made, are reverted then.
+   *
+   * @param acl the acl
+   * @return {@code true} if the changes were applied, otherwise {@code false}
+   */
+  public boolean applyTo(Acl<? extends Ace> acl) {
+    if (acl instanceof FrozenAcl) {
+      return isEmpty();
+    }
+    Map<String, ? extends Ace> entryMap = acl.entryMap();
+    if (!entries.isEmpty()
+        && (entryMap == null || !entryMap.keySet().containsAll(entries.keySet()))) {
+      return false;
+    }
+    List<Runnable> undo = new ArrayList<>();
+    try {
+      if (ownerChanged) {
+        final String oldOwner = acl.getOwner();
+        acl.setOwner(owner);
+        undo.add(() -> acl.setOwner(oldOwner));
+      }
+      entries.forEach((permission, aceChanges) -> aceChanges
+          .applyTo(entryMap.get(permission), undo));
+      return true;
+
+    } catch (UnsupportedOperationException e) {
+      for (int i = undo.size() - 1; i >= 0; i--) {
+        undo.get(i).run();
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Calculates the changes from the source acl to the target acl. The permissions of both acls
+   * must be in lower case (as they are, if the acls were built by the acl builder).
+   *
+   * @param source the source acl
+   * @param target the target acl
+   * @return the changes
+   */
+  static AclChanges between(Acl<? extends Ace> source, Acl<? extends Ace> target) {
+    Map<String, ? extends Ace> sourceEntries = source.entryMap();
+    Map<String, ? extends Ace> targetEntries = target.entryMap();
+    TreeSet<String> permissions = new TreeSet<>(sourceEntries.keySet());
+    permissions.addAll(targetEntries.keySet());
+    return new AclChanges(
+        !Objects.equals(source.getOwner(), target.getOwner()),
+        target.getOwner(),
+        permissions.stream()
+            .map(permission -> AceChanges.between(
+                permission,
+                sourceEntries.get(permission),
+                targetEntries.get(permission)))
+            .collect(Collectors.toList()));
+  }
+
+}
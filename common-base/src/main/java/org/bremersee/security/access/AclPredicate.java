@@ -0,0 +1,326 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * A store-agnostic predicate tree, that describes whether a user with roles and groups has a
+ * permission in an acl: the user is the owner OR the entry of the permission allows guests OR
+ * contains the user OR any of the roles OR any of the groups. A repository translates the tree
+ * with a {@link Visitor} into a query of its store (for example a mongo criteria), so that the
+ * documents are filtered and paged by the database instead of in memory.
+ *
+ * @author Christian Bremer
+ */
+public interface AclPredicate {
+
+  /**
+   * Creates the predicate tree for the given user, roles, groups and permission. Branches, that
+   * can't match (for example the owner branch without a user), are left out.
+   *
+   * @param user the user
+   * @param roles the roles
+   * @param groups the groups
+   * @param permission the permission
+   * @return the predicate tree
+   */
+  static AclPredicate of(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      String permission) {
+
+    Assert.hasText(permission, "Permission must be present.");
+    String lowerCasePermission = permission.toLowerCase();
+    List<AclPredicate> operands = new ArrayList<>(5);
+    if (StringUtils.hasText(user)) {
+      operands.add(new IsOwner(user));
+    }
+    operands.add(new IsGuest(lowerCasePermission));
+    if (StringUtils.hasText(user)) {
+      operands.add(
+          new ContainsAny(lowerCasePermission, Principal.USER, Collections.singleton(user)));
+    }
+    if (roles != null && !roles.isEmpty()) {
+      operands.add(new ContainsAny(lowerCasePermission, Principal.ROLE, roles));
+    }
+    if (groups != null && !groups.isEmpty()) {
+      operands.add(new ContainsAny(lowerCasePermission, Principal.GROUP, groups));
+    }
+    return new Or(operands);
+  }
+
+  /**
+   * Accepts the visitor.
+   *
+   * @param <T> the type of the result
+   * @param visitor the visitor
+   * @return the result of the visitor
+   */
+  <T> T accept(Visitor<T> visitor);
+
+  /**
+   * Evaluates this predicate in memory against the given acl.
+   *
+   * @param acl the acl
+   * @return {@code true} if the acl matches, otherwise {@code false}
+   */
+  boolean test(@Nullable Acl<? extends Ace> acl);
+
+  /**
+   * The principal types of an access control entry.
+   */
+  enum Principal {
+
+    /**
+     * Users.
+     */
+    USER,
+
+    /**
+     * Roles.
+     */
+    ROLE,
+
+    /**
+     * Groups.
+     */
+    GROUP;
+
+    /**
+     * Gets the principals of this type from the given entry.
+     *
+     * @param ace the access control entry
+     * @return the principals
+     */
+    public Set<String> of(Ace ace) {
+      switch (this) {
+        case USER:
+          return ace.getUsers();
+        case ROLE:
+          return ace.getRoles();
+        default:
+          return ace.getGroups();
+      }
+    }
+  }
+
+  /**
+   * The visitor of the predicate tree.
+   *
+   * @param <T> the type of the result
+   */
+  interface Visitor<T> {
+
+    /**
+     * Visits an or node.
+     *
+     * @param or the or node
+     * @return the result
+     */
+    T visit(Or or);
+
+    /**
+     * Visits an owner node.
+     *
+     * @param isOwner the owner node
+     * @return the result
+     */
+    T visit(IsOwner isOwner);
+
+    /**
+     * Visits a guest node.
+     *
+     * @param isGuest the guest node
+     * @return the result
+     */
+    T visit(IsGuest isGuest);
+
+    /**
+     * Visits a contains any node.
+     *
+     * @param containsAny the contains any node
+     * @return the result
+     */
+    T visit(ContainsAny containsAny);
+  }
+
+  /**
+   * Matches, if any of the operands matches. Without operands it never matches.
+   */
+  @Getter
+  @ToString
+  @EqualsAndHashCode
+  class Or implements AclPredicate {
+
+    private final List<AclPredicate> operands;
+
+    /**
+     * Instantiates a new or node.
+     *
+     * @param operands the operands
+     */
+    public Or(@Nullable Collection<? extends AclPredicate> operands) {
+      List<AclPredicate> list = new ArrayList<>();
+      if (operands != null) {
+        operands.stream().filter(Objects::nonNull).forEach(list::add);
+      }
+      this.operands = Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public <T> T accept(Visitor<T> visitor) {
+      return visitor.visit(this);
+    }
+
+    @Override
+    public boolean test(Acl<? extends Ace> acl) {
+      return operands.stream().anyMatch(operand -> operand.test(acl));
+    }
+  }
+
+  /**
+   * Matches, if the user is the owner of the acl.
+   */
+  @Getter
+  @ToString
+  @EqualsAndHashCode
+  class IsOwner implements AclPredicate {
+
+    private final String user;
+
+    /**
+     * Instantiates a new owner node.
+     *
+     * @param user the user
+     */
+    public IsOwner(String user) {
+      Assert.hasText(user, "User must be present.");
+      this.user = user;
+    }
+
+    @Override
+    public <T> T accept(Visitor<T> visitor) {
+      return visitor.visit(this);
+    }
+
+    @Override
+    public boolean test(Acl<? extends Ace> acl) {
+      return acl != null && user.equals(acl.getOwner());
+    }
+  }
+
+  /**
+   * Matches, if the entry of the permission allows guests.
+   */
+  @Getter
+  @ToString
+  @EqualsAndHashCode
+  class IsGuest implements AclPredicate {
+
+    private final String permission;
+
+    /**
+     * Instantiates a new guest node.
+     *
+     * @param permission the permission
+     */
+    public IsGuest(String permission) {
+      Assert.hasText(permission, "Permission must be present.");
+      this.permission = permission.toLowerCase();
+    }
+
+    @Override
+    public <T> T accept(Visitor<T> visitor) {
+      return visitor.visit(this);
+    }
+
+    @Override
+    public boolean test(Acl<? extends Ace> acl) {
+      Ace ace = findAce(acl, permission);
+      return ace != null && ace.isGuest();
+    }
+  }
+
+  /**
+   * Matches, if the entry of the permission contains any of the given principals.
+   */
+  @Getter
+  @ToString
+  @EqualsAndHashCode
+  class ContainsAny implements AclPredicate {
+
+    private final String permission;
+
+    private final Principal principal;
+
+    private final Set<String> values;
+
+    /**
+     * Instantiates a new contains any node.
+     *
+     * @param permission the permission
+     * @param principal the principal type
+     * @param values the values
+     */
+    public ContainsAny(String permission, Principal principal, Collection<String> values) {
+      Assert.hasText(permission, "Permission must be present.");
+      Assert.notNull(principal, "Principal must be present.");
+      Assert.notNull(values, "Values must be present.");
+      this.permission = permission.toLowerCase();
+      this.principal = principal;
+      Set<String> set = new TreeSet<>();
+      values.stream().filter(StringUtils::hasText).forEach(set::add);
+      this.values = Collections.unmodifiableSet(set);
+    }
+
+    @Override
+    public <T> T accept(Visitor<T> visitor) {
+      return visitor.visit(this);
+    }
+
+    @Override
+    public boolean test(Acl<? extends Ace> acl) {
+      Ace ace = findAce(acl, permission);
+      if (ace == null) {
+        return false;
+      }
+      Set<String> principals = principal.of(ace);
+      return values.stream().anyMatch(principals::contains);
+    }
+  }
+
+  private static Ace findAce(Acl<? extends Ace> acl, String permission) {
+    Map<String, ? extends Ace> entries = acl != null ? acl.entryMap() : null;
+    return entries != null ? entries.get(permission) : null;
+  }
+
+}
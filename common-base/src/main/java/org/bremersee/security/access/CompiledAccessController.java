@@ -0,0 +1,333 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.bremersee.common.model.AccessControlEntry;
+import org.bremersee.common.model.AccessControlList;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * An access controller, that is compiled from an access control list. Every permission of the
+ * access control list (compared ignoring case) gets a bit of this controller and every user, role
+ * and group of the access control list is mapped to the bit mask of its permissions. Checking one
+ * or more permissions is then a lookup of the principals and a few bitwise operations.
+ *
+ * <p>An access control list with more than {@link #MAXIMUM_PERMISSIONS} different permissions
+ * cannot be compiled. Then the access controller of {@link AccessController#from(Acl)} is used.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public final class CompiledAccessController implements AccessController {
+
+  /**
+   * The mask with all permissions.
+   */
+  public static final long ALL_PERMISSIONS = -1L;
+
+  /**
+   * The maximum number of different permissions of a compiled access control list.
+   */
+  public static final int MAXIMUM_PERMISSIONS = Long.SIZE;
+
+  private final Map<String, Integer> permissionIds;
+
+  private final String owner;
+
+  private final long guestMask;
+
+  private final Map<String, Long> userMasks;
+
+  private final Map<String, Long> roleMasks;
+
+  private final Map<String, Long> groupMasks;
+
+  private CompiledAccessController(Compiler compiler) {
+    this.permissionIds = compiler.permissionIds;
+    this.owner = compiler.owner;
+    this.guestMask = compiler.guestMask;
+    this.userMasks = compact(compiler.userMasks);
+    this.roleMasks = compact(compiler.roleMasks);
+    this.groupMasks = compact(compiler.groupMasks);
+  }
+
+  private static Map<String, Long> compact(Map<String, Long> masks) {
+    return masks.isEmpty() ? Collections.emptyMap() : masks;
+  }
+
+  /**
+   * Compiles the given access control list.
+   *
+   * @param acl the access control list
+   * @return the access controller
+   */
+  public static AccessController compile(@Nullable AccessControlList acl) {
+    if (acl == null) {
+      return new Impl();
+    }
+    Compiler compiler = new Compiler(acl.getOwner());
+    if (acl.getEntries() != null) {
+      for (AccessControlEntry entry : acl.getEntries()) {
+        if (entry != null && StringUtils.hasText(entry.getPermission())
+            && !compiler.add(
+            entry.getPermission(),
+            Boolean.TRUE.equals(entry.getGuest()),
+            entry.getUsers(),
+            entry.getRoles(),
+            entry.getGroups())) {
+          log.warn("Access control list has more than {} permissions, it will not be compiled.",
+              MAXIMUM_PERMISSIONS);
+          return AccessController.from(acl);
+        }
+      }
+    }
+    return new CompiledAccessController(compiler);
+  }
+
+  /**
+   * Compiles the given access control list.
+   *
+   * @param acl the access control list
+   * @return the access controller
+   */
+  public static AccessController compile(@Nullable Acl<? extends Ace> acl) {
+    if (acl == null) {
+      return new Impl();
+    }
+    Compiler compiler = new Compiler(acl.getOwner());
+    Map<String, ? extends Ace> map = acl.entryMap();
+    if (map != null) {
+      for (Map.Entry<String, ? extends Ace> entry : map.entrySet()) {
+        Ace ace = entry.getValue();
+        if (ace != null && StringUtils.hasText(entry.getKey())
+            && !compiler.add(
+            entry.getKey(),
+            ace.isGuest(),
+            ace.getUsers(),
+            ace.getRoles(),
+            ace.getGroups())) {
+          log.warn("Access control list has more than {} permissions, it will not be compiled.",
+              MAXIMUM_PERMISSIONS);
+          return AccessController.from(acl);
+        }
+      }
+    }
+    return new CompiledAccessController(compiler);
+  }
+
+  /**
+   * Gets the bit mask of the given permissions. The bits are only valid for this controller.
+   * Permissions, that are not part of the access control list, are ignored.
+   *
+   * @param permissions the permissions
+   * @return the permission mask
+   */
+  public long getPermissionMask(@Nullable Collection<String> permissions) {
+    long mask = 0L;
+    if (permissions != null) {
+      for (String permission : permissions) {
+        mask |= maskOf(permission);
+      }
+    }
+    return mask;
+  }
+
+  private long maskOf(@Nullable String permission) {
+    if (permission == null) {
+      return 0L;
+    }
+    Integer id = permissionIds.get(permission);
+    if (id == null) {
+      id = permissionIds.get(permission.toLowerCase());
+    }
+    return id != null ? 1L << id : 0L;
+  }
+
+  /**
+   * Gets the bit mask of the permissions, that the given user with the given roles and groups
+   * has. The bits are only valid for this controller.
+   *
+   * @param user the user
+   * @param roles the roles
+   * @param groups the groups
+   * @return the permission mask
+   * @see #getPermissionMask(Collection)
+   */
+  public long getPermissionMask(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups) {
+
+    if (user != null && user.equals(owner)) {
+      return ALL_PERMISSIONS;
+    }
+    long mask = guestMask;
+    if (user != null) {
+      mask |= userMasks.getOrDefault(user, 0L);
+    }
+    mask |= masksOf(roleMasks, roles);
+    mask |= masksOf(groupMasks, groups);
+    return mask;
+  }
+
+  private static long masksOf(Map<String, Long> masks, Collection<String> principals) {
+    long mask = 0L;
+    if (principals != null && !masks.isEmpty()) {
+      for (String principal : principals) {
+        Long principalMask = principal != null ? masks.get(principal) : null;
+        if (principalMask != null) {
+          mask |= principalMask;
+        }
+      }
+    }
+    return mask;
+  }
+
+  @Override
+  public boolean hasPermission(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable String permission) {
+
+    if (permission == null) {
+      return false;
+    }
+    if (user != null && user.equals(owner)) {
+      return true;
+    }
+    long required = maskOf(permission);
+    return required != 0L && (getPermissionMask(user, roles, groups) & required) != 0L;
+  }
+
+  @Override
+  public boolean hasAnyPermission(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable Collection<String> permissions) {
+
+    if (permissions == null || permissions.isEmpty()) {
+      return false;
+    }
+    if (user != null && user.equals(owner)) {
+      return permissions.stream().anyMatch(Objects::nonNull);
+    }
+    long required = getPermissionMask(permissions);
+    return required != 0L && (getPermissionMask(user, roles, groups) & required) != 0L;
+  }
+
+  @Override
+  public boolean hasAllPermissions(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable Collection<String> permissions) {
+
+    if (permissions == null || permissions.isEmpty()) {
+      return false;
+    }
+    if (user != null && user.equals(owner)) {
+      return permissions.stream().allMatch(Objects::nonNull);
+    }
+    long required = 0L;
+    for (String permission : permissions) {
+      long mask = maskOf(permission);
+      if (mask == 0L) {
+        return false;
+      }
+      required |= mask;
+    }
+    return (getPermissionMask(user, roles, groups) & required) == required;
+  }
+
+  @Override
+  public String toString() {
+    return "CompiledAccessController {owner = " + owner
+        + ", guestMask = " + Long.toBinaryString(guestMask)
+        + ", users = " + userMasks.keySet()
+        + ", roles = " + roleMasks.keySet()
+        + ", groups = " + groupMasks.keySet()
+        + '}';
+  }
+
+  /**
+   * Collects the permission masks of the entries.
+   */
+  private static class Compiler {
+
+    private final Map<String, Integer> permissionIds = new HashMap<>();
+
+    private final String owner;
+
+    private long guestMask;
+
+    private final Map<String, Long> userMasks = new HashMap<>();
+
+    private final Map<String, Long> roleMasks = new HashMap<>();
+
+    private final Map<String, Long> groupMasks = new HashMap<>();
+
+    private Compiler(String owner) {
+      this.owner = owner;
+    }
+
+    private boolean add(
+        String permission,
+        boolean guest,
+        Collection<String> users,
+        Collection<String> roles,
+        Collection<String> groups) {
+
+      String key = permission.toLowerCase();
+      Integer id = permissionIds.get(key);
+      if (id == null) {
+        if (permissionIds.size() >= MAXIMUM_PERMISSIONS) {
+          return false;
+        }
+        id = permissionIds.size();
+        permissionIds.put(key, id);
+      }
+      long mask = 1L << id;
+      if (guest) {
+        guestMask |= mask;
+      }
+      add(userMasks, users, mask);
+      add(roleMasks, roles, mask);
+      add(groupMasks, groups, mask);
+      return true;
+    }
+
+    private static void add(Map<String, Long> masks, Collection<String> principals, long mask) {
+      if (principals != null) {
+        for (String principal : principals) {
+          if (StringUtils.hasText(principal)) {
+            masks.merge(principal, mask, (a, b) -> a | b);
+          }
+        }
+      }
+    }
+  }
+
+}
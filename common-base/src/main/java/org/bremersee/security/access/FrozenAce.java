@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import java.util.Objects;
+import java.util.Set;
+import javax.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * The immutable access control entry implementation. The users, roles and groups are kept in
+ * sorted arrays; the hash code is calculated once.
+ *
+ * @author Christian Bremer
+ */
+@Validated
+final class FrozenAce implements Ace {
+
+  private final boolean guest;
+
+  private final SortedArraySet users;
+
+  private final SortedArraySet roles;
+
+  private final SortedArraySet groups;
+
+  private final int hashCode;
+
+  private FrozenAce(boolean guest, Ace ace) {
+    this.guest = guest;
+    this.users = SortedArraySet.of(ace.getUsers());
+    this.roles = SortedArraySet.of(ace.getRoles());
+    this.groups = SortedArraySet.of(ace.getGroups());
+    this.hashCode = Objects.hash(guest, users, roles, groups);
+  }
+
+  /**
+   * Creates an immutable copy of the given access control entry.
+   *
+   * @param ace the access control entry
+   * @return the immutable access control entry
+   */
+  static FrozenAce of(Ace ace) {
+    if (ace instanceof FrozenAce) {
+      return (FrozenAce) ace;
+    }
+    return new FrozenAce(ace.isGuest(), ace);
+  }
+
+  @Override
+  public boolean isGuest() {
+    return guest;
+  }
+
+  @Override
+  public void setGuest(boolean guest) {
+    throw new UnsupportedOperationException("Access control entry is immutable.");
+  }
+
+  @Override
+  public @NotNull Set<String> getUsers() {
+    return users;
+  }
+
+  @Override
+  public @NotNull Set<String> getRoles() {
+    return roles;
+  }
+
+  @Override
+  public @NotNull Set<String> getGroups() {
+    return groups;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o instanceof FrozenAce) {
+      FrozenAce ace = (FrozenAce) o;
+      return hashCode == ace.hashCode
+          && guest == ace.guest
+          && users.equals(ace.users)
+          && roles.equals(ace.roles)
+          && groups.equals(ace.groups);
+    }
+    if (!(o instanceof Ace)) {
+      return false;
+    }
+    Ace ace = (Ace) o;
+    return guest == ace.isGuest()
+        && users.equals(ace.getUsers())
+        && roles.equals(ace.getRoles())
+        && groups.equals(ace.getGroups());
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return "FrozenAce(guest=" + guest
+        + ", users=" + users
+        + ", roles=" + roles
+        + ", groups=" + groups
+        + ")";
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The immutable acl implementation. The permissions and the entries are kept in sorted arrays;
+ * the hash code is calculated once and two frozen acls are compared without copying them.
+ *
+ * @author Christian Bremer
+ */
+final class FrozenAcl implements Acl<FrozenAce> {
+
+  private static final String[] NO_PERMISSIONS = new String[0];
+
+  private static final FrozenAce[] NO_ENTRIES = new FrozenAce[0];
+
+  private final String owner;
+
+  private final String[] permissions;
+
+  private final FrozenAce[] entries;
+
+  private final int hashCode;
+
+  /**
+   * Instantiates a new frozen acl.
+   *
+   * @param owner the owner
+   * @param entries the entries
+   */
+  FrozenAcl(String owner, Map<String, ? extends Ace> entries) {
+    this.owner = owner;
+    if (entries == null || entries.isEmpty()) {
+      this.permissions = NO_PERMISSIONS;
+      this.entries = NO_ENTRIES;
+    } else {
+      TreeMap<String, Ace> sorted = new TreeMap<>();
+      entries.forEach((permission, ace) -> {
+        if (permission != null && ace != null) {
+          sorted.put(permission, ace);
+        }
+      });
+      this.permissions = new String[sorted.size()];
+      this.entries = new FrozenAce[sorted.size()];
+      int i = 0;
+      for (Map.Entry<String, Ace> entry : sorted.entrySet()) {
+        this.permissions[i] = entry.getKey();
+        this.entries[i] = FrozenAce.of(entry.getValue());
+        i++;
+      }
+    }
+    this.hashCode = Objects.hash(owner, entryMap());
+  }
+
+  /**
+   * Creates an immutable copy of the given acl.
+   *
+   * @param acl the acl
+   * @return the immutable acl
+   */
+  static FrozenAcl of(Acl<? extends Ace> acl) {
+    if (acl instanceof FrozenAcl) {
+      return (FrozenAcl) acl;
+    }
+    return new FrozenAcl(acl.getOwner(), acl.entryMap());
+  }
+
+  @Override
+  public String getOwner() {
+    return owner;
+  }
+
+  @Override
+  public void setOwner(String owner) {
+    throw new UnsupportedOperationException("Acl is immutable.");
+  }
+
+  @Override
+  public Map<String, FrozenAce> entryMap() {
+    return new EntryMap();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o instanceof FrozenAcl) {
+      FrozenAcl acl = (FrozenAcl) o;
+      return hashCode == acl.hashCode
+          && Objects.equals(owner, acl.owner)
+          && Arrays.equals(permissions, acl.permissions)
+          && Arrays.equals(entries, acl.entries);
+    }
+    if (!(o instanceof Acl)) {
+      return false;
+    }
+    Acl<?> acl = (Acl<?>) o;
+    return Objects.equals(owner, acl.getOwner())
+        && entryMap().equals(acl.entryMap());
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return "FrozenAcl(owner=" + owner + ", entries=" + entryMap() + ")";
+  }
+
+  /**
+   * The entry map view.
+   */
+  private class EntryMap extends AbstractMap<String, FrozenAce> {
+
+    @Override
+    public FrozenAce get(Object key) {
+      int index = key instanceof String ? Arrays.binarySearch(permissions, key) : -1;
+      return index >= 0 ? entries[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+      return permissions.length;
+    }
+
+    @Override
+    public Set<Entry<String, FrozenAce>> entrySet() {
+      return new AbstractSet<>() {
+
+        @Override
+        public Iterator<Entry<String, FrozenAce>> iterator() {
+          return new Iterator<>() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+              return index < permissions.length;
+            }
+
+            @Override
+            public Entry<String, FrozenAce> next() {
+              if (index >= permissions.length) {
+                throw new NoSuchElementException();
+              }
+              Entry<String, FrozenAce> entry = new SimpleImmutableEntry<>(
+                  permissions[index], entries[index]);
+              index++;
+              return entry;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return permissions.length;
+        }
+      };
+    }
+  }
+
+}
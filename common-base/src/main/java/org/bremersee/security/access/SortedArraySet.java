@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * An immutable set of strings, that is backed by a sorted array. The look up is a binary search.
+ *
+ * @author Christian Bremer
+ */
+final class SortedArraySet extends AbstractSet<String> {
+
+  private static final String[] EMPTY = new String[0];
+
+  /**
+   * The empty set.
+   */
+  static final SortedArraySet EMPTY_SET = new SortedArraySet(EMPTY);
+
+  private final String[] values;
+
+  private SortedArraySet(String[] values) {
+    this.values = values;
+  }
+
+  /**
+   * Creates a sorted array set with the values of the given collection.
+   *
+   * @param collection the collection
+   * @return the sorted array set
+   */
+  static SortedArraySet of(Collection<String> collection) {
+    if (collection instanceof SortedArraySet) {
+      return (SortedArraySet) collection;
+    }
+    if (collection == null || collection.isEmpty()) {
+      return EMPTY_SET;
+    }
+    TreeSet<String> sorted = new TreeSet<>();
+    for (String value : collection) {
+      if (value != null) {
+        sorted.add(value);
+      }
+    }
+    return sorted.isEmpty() ? EMPTY_SET : new SortedArraySet(sorted.toArray(EMPTY));
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return o instanceof String && Arrays.binarySearch(values, o) >= 0;
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<>() {
+
+      private int index;
+
+      @Override
+      public boolean hasNext() {
+        return index < values.length;
+      }
+
+      @Override
+      public String next() {
+        if (index >= values.length) {
+          throw new NoSuchElementException();
+        }
+        return values[index++];
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof SortedArraySet) {
+      return Arrays.equals(values, ((SortedArraySet) o).values);
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (String value : values) {
+      hashCode += Objects.hashCode(value);
+    }
+    return hashCode;
+  }
+}
@@ -27,6 +27,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import org.bremersee.common.model.AccessControlEntry;
 import org.bremersee.common.model.AccessControlList;
 import org.bremersee.security.core.AuthorityConstants;
@@ -289,4 +290,96 @@ class AclBuilderTest {
         .contains("ROLE_ADMIN"));
   }
 
-}
\ No newline at end of file
+  /**
+   * Diff.
+   */
+  @Test
+  void diff() {
+    Acl<? extends Ace> source = AclBuilder.builder()
+        .owner("anna")
+        .guest(true, "read")
+        .addUser("stephan", "read", "write")
+        .addRole("ROLE_ADMIN", "read")
+        .build(FrozenAcl::new);
+    Acl<? extends Ace> target = AclBuilder.builder()
+        .owner("anna")
+        .addUser("stephan", "read")
+        .addUser("leopold", "write")
+        .addRole("ROLE_ADMIN", "read")
+        .addGroup("friends", "delete")
+        .buildAcl();
+
+    AclChanges changes = AclBuilder.diff(source, target);
+    assertFalse(changes.isOwnerChanged());
+    assertEquals(Set.of("read", "write", "delete"), changes.getEntries().keySet());
+    AceChanges read = changes.getEntries().get("read");
+    assertEquals(Boolean.FALSE, read.getGuest());
+    assertTrue(read.getAddedUsers().isEmpty());
+    assertTrue(read.getRemovedRoles().isEmpty());
+    AceChanges write = changes.getEntries().get("write");
+    assertNull(write.getGuest());
+    assertEquals(Set.of("leopold"), write.getAddedUsers());
+    assertEquals(Set.of("stephan"), write.getRemovedUsers());
+    assertEquals(Set.of("friends"), changes.getEntries().get("delete").getAddedGroups());
+
+    assertTrue(AclBuilder.diff(target, target).isEmpty());
+    assertTrue(AclBuilder.diff(source, AclBuilder.builder().from(source).buildAccessControlList())
+        .isEmpty());
+  }
+
+  /**
+   * Diff access control list.
+   */
+  @Test
+  void diffAccessControlList() {
+    Acl<? extends Ace> source = AclBuilder.builder()
+        .owner("anna")
+        .addUser("stephan", "read")
+        .buildAcl();
+    AccessControlList target = AccessControlList
+        .builder()
+        .owner("leopold")
+        .entries(Collections.singletonList(AccessControlEntry
+            .builder()
+            .permission("READ")
+            .roles(Collections.singletonList("ROLE_USER"))
+            .build()))
+        .build();
+
+    AclChanges changes = AclBuilder.diff(source, target);
+    assertTrue(changes.isOwnerChanged());
+    assertEquals("leopold", changes.getOwner());
+    AceChanges read = changes.getEntries().get("read");
+    assertEquals(Set.of("stephan"), read.getRemovedUsers());
+    assertEquals(Set.of("ROLE_USER"), read.getAddedRoles());
+  }
+
+  /**
+   * Apply.
+   */
+  @Test
+  void apply() {
+    Acl<? extends Ace> source = AclBuilder.builder()
+        .owner("anna")
+        .guest(true, "read")
+        .addUser("stephan", "read", "write")
+        .buildAcl();
+    Acl<? extends Ace> target = AclBuilder.builder()
+        .owner("leopold")
+        .addUser("stephan", "read")
+        .addGroup("friends", "read", "delete")
+        .buildAcl();
+
+    Acl<? extends Ace> actual = AclBuilder.builder()
+        .from(source)
+        .apply(AclBuilder.diff(source, target))
+        .buildAcl();
+    assertEquals("leopold", actual.getOwner());
+    assertFalse(actual.entryMap().get("read").isGuest());
+    assertEquals(Set.of("stephan"), actual.entryMap().get("read").getUsers());
+    assertEquals(Set.of("friends"), actual.entryMap().get("delete").getGroups());
+    assertTrue(actual.entryMap().get("write").getUsers().isEmpty());
+    assertTrue(AclBuilder.diff(actual, target).isEmpty());
+  }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The acl changes test.
+ *
+ * @author Christian Bremer
+ */
+class AclChangesTest {
+
+  /**
+   * Builder skips empty entries.
+   */
+  @Test
+  void builderSkipsEmptyEntries() {
+    AclChanges changes = AclChanges.builder()
+        .entry(AceChanges.builder().permission("READ").build())
+        .entry(AceChanges.builder().permission("WRITE").addedUsers(List.of("anna")).build())
+        .build();
+    assertFalse(changes.isEmpty());
+    assertEquals(Set.of("write"), changes.getEntries().keySet());
+    assertTrue(AclChanges.builder().build().isEmpty());
+  }
+
+  /**
+   * Apply to.
+   */
+  @Test
+  void applyTo() {
+    Acl<? extends Ace> acl = AclBuilder.builder()
+        .owner("anna")
+        .addUser("stephan", "read")
+        .addRole("ROLE_USER", "read")
+        .buildAcl();
+    AclChanges changes = AclChanges.builder()
+        .ownerChanged(true)
+        .owner("leopold")
+        .entry(AceChanges.builder()
+            .permission("read")
+            .guest(true)
+            .addedUsers(List.of("leopold"))
+            .removedUsers(List.of("stephan"))
+            .removedRoles(List.of("ROLE_USER"))
+            .addedGroups(List.of("friends"))
+            .build())
+        .build();
+
+    assertTrue(changes.applyTo(acl));
+    assertEquals("leopold", acl.getOwner());
+    Ace read = acl.entryMap().get("read");
+    assertTrue(read.isGuest());
+    assertEquals(Set.of("leopold"), read.getUsers());
+    assertTrue(read.getRoles().isEmpty());
+    assertEquals(Set.of("friends"), read.getGroups());
+  }
+
+  /**
+   * Apply to with missing entry.
+   */
+  @Test
+  void applyToWithMissingEntry() {
+    Acl<? extends Ace> acl = AclBuilder.builder()
+        .owner("anna")
+        .addUser("stephan", "read")
+        .buildAcl();
+    AclChanges changes = AclChanges.builder()
+        .ownerChanged(true)
+        .owner("leopold")
+        .entry(AceChanges.builder()
+            .permission("write")
+            .addedUsers(List.of("leopold"))
+            .build())
+        .build();
+
+    assertFalse(changes.applyTo(acl));
+    assertEquals("anna", acl.getOwner());
+    assertFalse(acl.entryMap().containsKey("write"));
+  }
+
+  /**
+   * Apply to frozen acl.
+   */
+  @Test
+  void applyToFrozenAcl() {
+    Acl<? extends Ace> acl = AclBuilder.builder()
+        .owner("anna")
+        .addUser("stephan", "read")
+        .buildFrozenAcl();
+    AclChanges changes = AclChanges.builder()
+        .ownerChanged(true)
+        .owner("leopold")
+        .entry(AceChanges.builder()
+            .permission("read")
+            .addedUsers(List.of("leopold"))
+            .build())
+        .build();
+
+    assertFalse(changes.applyTo(acl));
+    assertEquals("anna", acl.getOwner());
+    assertEquals(Set.of("stephan"), acl.entryMap().get("read").getUsers());
+    assertTrue(AclChanges.builder().build().applyTo(acl));
+  }
+
+  /**
+   * Apply to acl with unmodifiable entry.
+   */
+  @Test
+  void applyToAclWithUnmodifiableEntry() {
+    Ace read = new AceImpl();
+    read.getUsers().add("stephan");
+    Ace write = new Ace() {
+      @Override
+      public boolean isGuest() {
+        return false;
+      }
+
+      @Override
+      public void setGuest(boolean guest) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Set<String> getUsers() {
+        return Collections.singleton("stephan");
+      }
+
+      @Override
+      public Set<String> getRoles() {
+        return Collections.emptySet();
+      }
+
+      @Override
+      public Set<String> getGroups() {
+        return Collections.emptySet();
+      }
+    };
+    Acl<? extends Ace> acl = new AclImpl("anna", Map.of("read", read, "write", write));
+    AclChanges changes = AclChanges.builder()
+        .ownerChanged(true)
+        .owner("leopold")
+        .entry(AceChanges.builder()
+            .permission("read")
+            .addedUsers(List.of("leopold"))
+            .removedUsers(List.of("stephan"))
+            .build())
+        .entry(AceChanges.builder()
+            .permission("write")
+            .addedUsers(List.of("leopold"))
+            .build())
+        .build();
+
+    assertFalse(changes.applyTo(acl));
+    assertEquals("anna", acl.getOwner());
+    assertEquals(Set.of("stephan"), acl.entryMap().get("read").getUsers());
+    assertEquals(Set.of("stephan"), acl.entryMap().get("write").getUsers());
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.bremersee.security.access.AclPredicate.ContainsAny;
+import org.bremersee.security.access.AclPredicate.IsGuest;
+import org.bremersee.security.access.AclPredicate.IsOwner;
+import org.bremersee.security.access.AclPredicate.Or;
+import org.bremersee.security.access.AclPredicate.Principal;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The acl predicate test.
+ *
+ * @author Christian Bremer
+ */
+class AclPredicateTest {
+
+  /**
+   * Of.
+   */
+  @Test
+  void of() {
+    AclPredicate actual = AclPredicate
+        .of("anna", List.of("ROLE_USER"), List.of("friends"), "READ");
+    AclPredicate expected = new Or(List.of(
+        new IsOwner("anna"),
+        new IsGuest("read"),
+        new ContainsAny("read", Principal.USER, Set.of("anna")),
+        new ContainsAny("read", Principal.ROLE, Set.of("ROLE_USER")),
+        new ContainsAny("read", Principal.GROUP, Set.of("friends"))));
+    assertEquals(expected, actual);
+  }
+
+  /**
+   * Of without principals.
+   */
+  @Test
+  void ofWithoutPrincipals() {
+    AclPredicate actual = AclPredicate.of(null, null, List.of(), "read");
+    assertEquals(new Or(List.of(new IsGuest("read"))), actual);
+  }
+
+  /**
+   * Test.
+   */
+  @Test
+  void test() {
+    AclPredicate predicate = AclPredicate
+        .of("anna", List.of("ROLE_USER"), List.of("friends"), "read");
+    assertTrue(predicate.test(AclBuilder.builder().owner("anna").buildAcl()));
+    assertTrue(predicate.test(AclBuilder.builder().guest(true, "read").buildAcl()));
+    assertTrue(predicate.test(AclBuilder.builder().addUser("anna", "read").buildAcl()));
+    assertTrue(predicate.test(AclBuilder.builder().addRole("ROLE_USER", "read").buildFrozenAcl()));
+    assertTrue(predicate.test(AclBuilder.builder().addGroup("friends", "read").buildAcl()));
+    assertFalse(predicate.test(AclBuilder.builder().addUser("anna", "write").buildAcl()));
+    assertFalse(predicate.test(AclBuilder.builder().owner("stephan").buildAcl()));
+    assertFalse(predicate.test(null));
+    assertFalse(new Or(null).test(AclBuilder.builder().guest(true, "read").buildAcl()));
+  }
+
+  /**
+   * Accept.
+   */
+  @Test
+  void accept() {
+    AclPredicate predicate = AclPredicate.of("anna", List.of("ROLE_USER"), null, "read");
+    String actual = predicate.accept(new AclPredicate.Visitor<>() {
+      @Override
+      public String visit(Or or) {
+        StringBuilder sb = new StringBuilder();
+        or.getOperands().forEach(operand -> sb.append(operand.accept(this)).append(';'));
+        return sb.toString();
+      }
+
+      @Override
+      public String visit(IsOwner isOwner) {
+        return "owner=" + isOwner.getUser();
+      }
+
+      @Override
+      public String visit(IsGuest isGuest) {
+        return isGuest.getPermission() + ".guest";
+      }
+
+      @Override
+      public String visit(ContainsAny containsAny) {
+        return containsAny.getPermission() + "." + containsAny.getPrincipal()
+            + "=" + containsAny.getValues();
+      }
+    });
+    assertEquals("owner=anna;read.guest;read.USER=[anna];read.ROLE=[ROLE_USER];", actual);
+  }
+
+}
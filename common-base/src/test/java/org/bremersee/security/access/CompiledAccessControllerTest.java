@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.bremersee.common.model.AccessControlEntry;
+import org.bremersee.common.model.AccessControlList;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The compiled access controller test.
+ *
+ * @author Christian Bremer
+ */
+class CompiledAccessControllerTest {
+
+  private static final AccessControlList acl = AccessControlList
+      .builder()
+      .owner("owner")
+      .entries(Arrays.asList(
+          AccessControlEntry
+              .builder()
+              .permission("WRITE")
+              .groups(Collections.singletonList("group"))
+              .roles(Collections.singletonList("role"))
+              .users(Collections.singletonList("user"))
+              .build(),
+          AccessControlEntry
+              .builder()
+              .permission("read")
+              .guest(true)
+              .build()
+      ))
+      .build();
+
+  /**
+   * Compile.
+   */
+  @Test
+  void compile() {
+    assertFalse(AccessController.compile((AccessControlList) null)
+        .hasPermission("owner", null, null, "read"));
+    assertFalse(AccessController.compile((Acl<?>) null)
+        .hasPermission("owner", null, null, "read"));
+    assertTrue(AccessController.compile(acl) instanceof CompiledAccessController);
+    assertTrue(AccessController.compile(AclBuilder.builder().from(acl).buildAcl())
+        instanceof CompiledAccessController);
+  }
+
+  /**
+   * Has permission.
+   */
+  @Test
+  void hasPermission() {
+    AccessController controller = AccessController.compile(acl);
+    assertTrue(controller.hasPermission("test", null, null, "read"));
+    assertTrue(controller.hasPermission("user", null, null, "write"));
+    assertTrue(controller.hasPermission("test", List.of("role"), null, "Write"));
+    assertTrue(controller.hasPermission("test", null, List.of("group"), "write"));
+    assertTrue(controller.hasPermission("owner", null, null, "anything"));
+    assertFalse(controller.hasPermission("test", null, null, "write"));
+    assertFalse(controller.hasPermission("user", null, null, "delete"));
+    assertFalse(controller.hasPermission("user", null, null, "unknown"));
+    assertFalse(controller.hasPermission(null, null, null, "write"));
+    assertFalse(controller.hasPermission("owner", null, null, null));
+  }
+
+  /**
+   * Has any and all permissions.
+   */
+  @Test
+  void hasAnyAndAllPermissions() {
+    AccessController controller = AccessController.compile(acl);
+    assertTrue(controller.hasAnyPermission("test", null, null, "write", "read"));
+    assertFalse(controller.hasAnyPermission("test", null, null, "write", "delete"));
+    assertFalse(controller.hasAnyPermission("test", null, null));
+    assertTrue(controller.hasAllPermissions("test", null, List.of("group"), "read", "write"));
+    assertFalse(controller.hasAllPermissions("test", null, List.of("test"), "read", "write"));
+    assertFalse(controller.hasAllPermissions("user", null, null, "read", "unknown"));
+    assertTrue(controller.hasAllPermissions("owner", null, null, "read", "unknown"));
+  }
+
+  /**
+   * Permission mask.
+   */
+  @Test
+  void permissionMask() {
+    CompiledAccessController controller = (CompiledAccessController) AccessController
+        .compile(acl);
+    assertEquals(
+        controller.getPermissionMask(List.of("read", "write")),
+        controller.getPermissionMask("user", null, null));
+    assertEquals(
+        controller.getPermissionMask(List.of("READ")),
+        controller.getPermissionMask("test", null, null));
+    assertEquals(0L, controller.getPermissionMask(List.of("delete")));
+    assertEquals(
+        CompiledAccessController.ALL_PERMISSIONS,
+        controller.getPermissionMask("owner", null, null));
+  }
+
+  /**
+   * Compile with too many permissions.
+   */
+  @Test
+  void compileWithTooManyPermissions() {
+    AclBuilder builder = AclBuilder.builder().owner("owner");
+    for (int i = 0; i <= CompiledAccessController.MAXIMUM_PERMISSIONS; i++) {
+      builder.addUser("user", "permission" + i);
+    }
+    Acl<? extends Ace> largeAcl = builder.buildAcl();
+    AccessController controller = AccessController.compile(largeAcl);
+    assertFalse(controller instanceof CompiledAccessController);
+    assertTrue(controller.hasPermission("user", null, null, "permission64"));
+
+    // the permissions of another access control list don't affect the compilation
+    assertTrue(AccessController.compile(acl) instanceof CompiledAccessController);
+  }
+
+  /**
+   * Same result as access controller.
+   */
+  @Test
+  void sameResultAsAccessController() {
+    Random random = new Random(42L);
+    List<String> principals = List.of("a", "b", "c", "d", "e");
+    for (int i = 0; i < 50; i++) {
+      AclBuilder builder = AclBuilder.builder().owner(principals.get(random.nextInt(5)));
+      for (String permission : PermissionConstants.ALL) {
+        builder.guest(random.nextInt(10) == 0, permission);
+        builder.addUser(principals.get(random.nextInt(5)), permission);
+        builder.addRole(principals.get(random.nextInt(5)), permission);
+        builder.addGroup(principals.get(random.nextInt(5)), permission);
+      }
+      Acl<? extends Ace> randomAcl = builder.buildAcl();
+      AccessController expected = AccessController.from(randomAcl);
+      AccessController actual = AccessController.compile(randomAcl);
+      for (String user : principals) {
+        List<String> roles = List.of(principals.get(random.nextInt(5)));
+        List<String> groups = List.of(principals.get(random.nextInt(5)));
+        for (String permission : PermissionConstants.ALL) {
+          assertEquals(
+              expected.hasPermission(user, roles, groups, permission),
+              actual.hasPermission(user, roles, groups, permission));
+        }
+        assertEquals(
+            expected.hasAllPermissions(user, roles, groups, PermissionConstants.ALL),
+            actual.hasAllPermissions(user, roles, groups, PermissionConstants.ALL));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The frozen acl test.
+ *
+ * @author Christian Bremer
+ */
+class FrozenAclTest {
+
+  private static AclBuilder builder() {
+    return AclBuilder.builder()
+        .owner("owner")
+        .addUser("anna", PermissionConstants.WRITE, PermissionConstants.READ)
+        .addRole("ROLE_USER", PermissionConstants.READ)
+        .addRole("ROLE_ADMIN", PermissionConstants.READ)
+        .addGroup("friends", PermissionConstants.WRITE)
+        .guest(true, PermissionConstants.READ);
+  }
+
+  /**
+   * Build frozen acl.
+   */
+  @Test
+  void buildFrozenAcl() {
+    Acl<? extends Ace> acl = builder().buildFrozenAcl();
+    assertTrue(acl instanceof FrozenAcl);
+    assertEquals("owner", acl.getOwner());
+    assertEquals(2, acl.entryMap().size());
+
+    Ace read = acl.entryMap().get(PermissionConstants.READ);
+    assertTrue(read.isGuest());
+    assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER"), read.getRoles());
+    assertTrue(read.getRoles().contains("ROLE_USER"));
+    assertFalse(read.getRoles().contains("ROLE_OTHER"));
+    assertTrue(read.getGroups().isEmpty());
+    assertNull(acl.entryMap().get(PermissionConstants.DELETE));
+  }
+
+  /**
+   * Equals and hash code.
+   */
+  @Test
+  void equalsAndHashCode() {
+    Acl<? extends Ace> frozen = builder().buildFrozenAcl();
+    Acl<? extends Ace> other = builder().buildFrozenAcl();
+    Acl<? extends Ace> mutable = builder().buildAcl();
+
+    assertEquals(frozen, other);
+    assertEquals(frozen.hashCode(), other.hashCode());
+    assertEquals(frozen, mutable);
+    assertEquals(mutable, frozen);
+    assertEquals(mutable.hashCode(), frozen.hashCode());
+    assertEquals(
+        mutable.entryMap().get(PermissionConstants.READ),
+        frozen.entryMap().get(PermissionConstants.READ));
+    assertEquals(
+        frozen.entryMap().get(PermissionConstants.READ),
+        mutable.entryMap().get(PermissionConstants.READ));
+
+    Acl<? extends Ace> changed = builder()
+        .removeUser("anna", PermissionConstants.WRITE)
+        .buildFrozenAcl();
+    assertNotEquals(frozen, changed);
+    assertNotEquals(frozen, null);
+    assertNotEquals(frozen, new Object());
+  }
+
+  /**
+   * Immutable.
+   */
+  @Test
+  void immutable() {
+    Acl<? extends Ace> acl = builder().buildFrozenAcl();
+    assertThrows(UnsupportedOperationException.class, () -> acl.setOwner("someone"));
+    Ace ace = acl.entryMap().get(PermissionConstants.WRITE);
+    assertThrows(UnsupportedOperationException.class, () -> ace.setGuest(true));
+    assertThrows(UnsupportedOperationException.class, () -> ace.getUsers().add("livia"));
+    assertSame(acl, FrozenAcl.of(acl));
+  }
+
+  /**
+   * Copy and access.
+   */
+  @Test
+  void copyAndAccess() {
+    Acl<? extends Ace> acl = builder().buildFrozenAcl();
+    assertEquals(builder().buildAccessControlList(),
+        AclBuilder.builder().from(acl).buildAccessControlList());
+    assertTrue(AccessController.from(acl)
+        .hasPermission("livia", null, Set.of("friends"), "WRITE"));
+  }
+
+}